@@ -4,15 +4,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import FrenzyFilms.service.AdminService;
+import FrenzyFilms.service.GeneroService;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableAsync
 public class FrenzyFilmsApplication implements CommandLineRunner {
 
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private GeneroService generoService;
+
     public static void main(String[] args) {
         SpringApplication.run(FrenzyFilmsApplication.class, args);
     }
@@ -21,5 +29,7 @@ public class FrenzyFilmsApplication implements CommandLineRunner {
     public void run(String... args) throws Exception {
         // Invocar el método para crear el administrador por defecto si no existe
         adminService.adminPorDefecto();
+        // Completar los géneros normalizados de las películas guardadas antes de existir la tabla
+        generoService.normalizarGeneros();
     }
 }
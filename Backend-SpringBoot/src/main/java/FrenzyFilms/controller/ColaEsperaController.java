@@ -0,0 +1,88 @@
+package FrenzyFilms.controller;
+
+import FrenzyFilms.dto.TurnoColaDTO;
+import FrenzyFilms.service.ColaEsperaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/cola")
+@Tag(name = "Cola de espera", description = "Sala de espera virtual para la compra de entradas en sesiones con mucha demanda")
+public class ColaEsperaController {
+
+    @Autowired
+    private ColaEsperaService colaEsperaService;
+
+    @PutMapping("/sesion/{idSesion}")
+    @Operation(summary = "Activar la cola de espera en una sesión", description = "Admite compradores al ritmo indicado en usuarios por minuto. Solo administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cola activada correctamente"),
+            @ApiResponse(responseCode = "400", description = "Ritmo de admisión inválido"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<Void> activarSesion(@PathVariable int idSesion, @RequestParam int porMinuto) {
+        colaEsperaService.activarSesion(idSesion, porMinuto);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/sesion/{idSesion}")
+    @Operation(summary = "Desactivar la cola de espera de una sesión")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cola desactivada correctamente"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<Void> desactivarSesion(@PathVariable int idSesion) {
+        colaEsperaService.desactivarSesion(idSesion);
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/pelicula/{idPelicula}")
+    @Operation(summary = "Activar la cola de espera en todas las sesiones de una película", description = "Incluye las sesiones que se creen más adelante. Solo administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cola activada correctamente"),
+            @ApiResponse(responseCode = "400", description = "Ritmo de admisión inválido"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado"),
+            @ApiResponse(responseCode = "404", description = "Película no encontrada")
+    })
+    public ResponseEntity<Void> activarPelicula(@PathVariable int idPelicula, @RequestParam int porMinuto) {
+        colaEsperaService.activarPelicula(idPelicula, porMinuto);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/pelicula/{idPelicula}")
+    @Operation(summary = "Desactivar la cola de espera de todas las sesiones de una película")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cola desactivada correctamente"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado"),
+            @ApiResponse(responseCode = "404", description = "Película no encontrada")
+    })
+    public ResponseEntity<Void> desactivarPelicula(@PathVariable int idPelicula) {
+        colaEsperaService.desactivarPelicula(idPelicula);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/sesion/{idSesion}/turno")
+    @Operation(summary = "Pedir turno para comprar en una sesión", description = "Si la sesión no tiene cola el turno se devuelve ya admitido. Si el usuario ya tenía turno se devuelve el mismo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Turno obtenido correctamente")
+    })
+    public ResponseEntity<TurnoColaDTO> pedirTurno(@PathVariable int idSesion) {
+        return ResponseEntity.ok(colaEsperaService.pedirTurno(idSesion));
+    }
+
+    @GetMapping("/turno/{turno}")
+    @Operation(summary = "Consultar la posición de un turno en la cola", description = "Debe consultarse periódicamente: los turnos que dejan de consultarse se descartan. Una vez admitido, el turno se envía en la cabecera X-Turno-Cola al comprar y sirve para una sola compra.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado del turno"),
+            @ApiResponse(responseCode = "404", description = "Turno no encontrado o caducado")
+    })
+    public ResponseEntity<TurnoColaDTO> consultarTurno(@PathVariable String turno) {
+        return ResponseEntity.ok(colaEsperaService.consultarTurno(turno));
+    }
+}
@@ -2,8 +2,12 @@
 package FrenzyFilms.controller;
 
 import FrenzyFilms.dto.EntradaDetalladaPlanoDTO;
+import FrenzyFilms.dto.RetencionDTO;
 import FrenzyFilms.entity.Entrada;
+import FrenzyFilms.service.ColaEsperaService;
 import FrenzyFilms.service.EntradaService;
+import FrenzyFilms.service.HistoricoService;
+import FrenzyFilms.service.IdempotenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -12,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -23,6 +28,15 @@ public class EntradaController {
     @Autowired
     private EntradaService entradaService;
 
+    @Autowired
+    private ColaEsperaService colaEsperaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private HistoricoService historicoService;
+
     @GetMapping("/usuario")
     @Operation(summary = "Obtener todas las entradas del usuario logueado")
     @ApiResponses(value = {
@@ -35,14 +49,21 @@ public class EntradaController {
     }
 
     @GetMapping("/usuario/detallado")
-    @Operation(summary = "Obtener todas las entradas del usuario logueado, con detalles completos de sesión, sala y película")
+    @Operation(summary = "Obtener todas las entradas del usuario logueado, con detalles completos de sesión, sala y película", description = "Por defecto incluye también las entradas de sesiones pasadas que ya se han archivado. Con historico=true solo devuelve las archivadas y con historico=false solo las de sesiones aún no archivadas.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Entradas detalladas obtenidas correctamente"),
             @ApiResponse(responseCode = "403", description = "Acceso denegado si no estás autenticado"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<EntradaDetalladaPlanoDTO>> getEntradasDetalladas() {
-        List<EntradaDetalladaPlanoDTO> resultado = entradaService.getEntradasDetalladas();
+    public ResponseEntity<List<EntradaDetalladaPlanoDTO>> getEntradasDetalladas(
+            @RequestParam(required = false) Boolean historico) {
+        List<EntradaDetalladaPlanoDTO> resultado = new ArrayList<>();
+        if (!Boolean.TRUE.equals(historico)) {
+            resultado.addAll(entradaService.getEntradasDetalladas());
+        }
+        if (!Boolean.FALSE.equals(historico)) {
+            resultado.addAll(historicoService.getEntradasDetalladasHistoricas());
+        }
         return ResponseEntity.ok(resultado);
     }
 
@@ -70,27 +91,88 @@ public class EntradaController {
     }
 
     @PostMapping("/{idSesion}")
-    @Operation(summary = "Crear una nueva entrada para una sesión")
+    @Operation(summary = "Crear una nueva entrada para una sesión", description = "Con la cabecera Idempotency-Key, repetir la petición devuelve la misma entrada en lugar de crear otra.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Entrada creada correctamente"),
-            @ApiResponse(responseCode = "400", description = "Error al crear entrada (asiento ocupado, sesión empezada, sin asientos)")
+            @ApiResponse(responseCode = "400", description = "Error al crear entrada (asiento ocupado, sesión empezada, sin asientos)"),
+            @ApiResponse(responseCode = "409", description = "La sesión tiene cola de espera y el turno no está admitido")
     })
     public ResponseEntity<Entrada> createEntrada(
             @PathVariable int idSesion,
+            @RequestHeader(value = ColaEsperaService.CABECERA_TURNO, required = false) String turno,
+            @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia,
             @RequestBody Entrada entrada) {
-        Entrada nueva = entradaService.createEntrada(entrada, idSesion);
+        String operacion = "POST /entrada/" + idSesion + " " + entrada.getNumFila() + "-" + entrada.getNumAsiento();
+        // Una repetición de una compra ya hecha se responde aunque el turno de la cola haya caducado
+        Entrada nueva = idempotenciaService.ejecutar(claveIdempotencia, operacion,
+                () -> colaEsperaService.comprarConTurno(idSesion, turno,
+                        () -> entradaService.createEntrada(entrada, idSesion)));
         return ResponseEntity.ok(nueva);
     }
 
+    @PostMapping("/{idSesion}/lote")
+    @Operation(summary = "Comprar varias entradas para una sesión en una única operación", description = "Valida todos los asientos a la vez y crea todas las entradas o ninguna. Admite la cabecera Idempotency-Key.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entradas creadas correctamente"),
+            @ApiResponse(responseCode = "400", description = "Algún asiento no existe, está repetido o ya está ocupado"),
+            @ApiResponse(responseCode = "409", description = "Sin asientos suficientes, sesión empezada, límite de 10 entradas superado o turno de cola no admitido")
+    })
+    public ResponseEntity<List<Entrada>> createEntradas(
+            @PathVariable int idSesion,
+            @RequestHeader(value = ColaEsperaService.CABECERA_TURNO, required = false) String turno,
+            @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia,
+            @RequestBody List<Entrada> entradas) {
+        StringBuilder operacion = new StringBuilder("POST /entrada/" + idSesion + "/lote");
+        for (Entrada entrada : entradas) {
+            operacion.append(' ').append(entrada.getNumFila()).append('-').append(entrada.getNumAsiento());
+        }
+        List<Entrada> nuevas = idempotenciaService.ejecutar(claveIdempotencia, operacion.toString(),
+                () -> colaEsperaService.comprarConTurno(idSesion, turno,
+                        () -> entradaService.createEntradas(entradas, idSesion)));
+        return ResponseEntity.ok(nuevas);
+    }
+
+    @PostMapping("/{idSesion}/retencion")
+    @Operation(summary = "Retener temporalmente un asiento mientras se completa la compra")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Asiento retenido correctamente"),
+            @ApiResponse(responseCode = "400", description = "El asiento no existe o ya está ocupado"),
+            @ApiResponse(responseCode = "409", description = "El asiento está retenido por otro usuario o la sesión ya ha comenzado")
+    })
+    public ResponseEntity<RetencionDTO> retenerAsiento(
+            @PathVariable int idSesion,
+            @RequestBody Entrada entrada) {
+        RetencionDTO retencion = entradaService.retenerAsiento(entrada, idSesion);
+        return ResponseEntity.ok(retencion);
+    }
+
+    @DeleteMapping("/{idSesion}/retencion")
+    @Operation(summary = "Liberar un asiento retenido por el usuario logueado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retención liberada correctamente")
+    })
+    public ResponseEntity<Void> liberarAsiento(
+            @PathVariable int idSesion,
+            @RequestParam int numFila,
+            @RequestParam int numAsiento) {
+        entradaService.liberarAsiento(idSesion, numFila, numAsiento);
+        return ResponseEntity.ok().build();
+    }
+
     @DeleteMapping("/{id}")
-    @Operation(summary = "Eliminar una entrada (si eres admin o el propietario)")
+    @Operation(summary = "Eliminar una entrada (si eres admin o el propietario)", description = "Con la cabecera Idempotency-Key, repetir la petición no vuelve a cancelar ni devuelve error.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Entrada cancelada correctamente"),
             @ApiResponse(responseCode = "403", description = "No tienes permiso para cancelar la entrada"),
             @ApiResponse(responseCode = "400", description = "No se puede cancelar con menos de 1 hora")
     })
-    public ResponseEntity<Void> deleteEntrada(@PathVariable int id) {
-        entradaService.deleteEntrada(id);
+    public ResponseEntity<Void> deleteEntrada(
+            @PathVariable int id,
+            @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia) {
+        idempotenciaService.ejecutar(claveIdempotencia, "DELETE /entrada/" + id, () -> {
+            entradaService.deleteEntrada(id);
+            return Boolean.TRUE;
+        });
         return ResponseEntity.ok().build();
     }
 }
@@ -5,17 +5,29 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import FrenzyFilms.dto.GeneroFacetaDTO;
+import FrenzyFilms.dto.PeliculaResumenDTO;
 import FrenzyFilms.entity.Estado;
 import FrenzyFilms.entity.Pelicula;
 import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.service.BusquedaPeliculasService;
+import FrenzyFilms.service.CarteleraService;
+import FrenzyFilms.service.CarteleraService.CarteleraSerializada;
+import FrenzyFilms.service.GeneroService;
 import FrenzyFilms.service.PeliculaService;
 import FrenzyFilms.service.SesionService;
 
@@ -30,6 +42,15 @@ public class PeliculaController {
     @Autowired
     private SesionService sesionService;
 
+    @Autowired
+    private CarteleraService carteleraService;
+
+    @Autowired
+    private BusquedaPeliculasService busquedaPeliculasService;
+
+    @Autowired
+    private GeneroService generoService;
+
     @GetMapping
     @Operation(summary = "Obtener todas las películas")
     @ApiResponses(value = {
@@ -42,12 +63,69 @@ public class PeliculaController {
 
     @GetMapping("/cartelera")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Películas obtenidas correctamente"),
+            @ApiResponse(responseCode = "200", description = "Películas obtenidas correctamente", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Pelicula.class)))),
+            @ApiResponse(responseCode = "304", description = "La cartelera no ha cambiado desde el ETag indicado en If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    @Operation(summary = "Obtener las películas activas en cartelera")
-    public ResponseEntity<List<Pelicula>> getPeliculasEnCartelera() {
-        return ResponseEntity.ok(peliculaService.getPeliculasEnCartelera());
+    @Operation(summary = "Obtener las películas activas en cartelera", description = "Opcionalmente se filtra por género, sin distinguir mayúsculas ni tildes; un género desconocido devuelve una lista vacía. La respuesta incluye un ETag; si se envía en If-None-Match y la cartelera no ha cambiado, se responde 304 sin contenido.")
+    public ResponseEntity<byte[]> getPeliculasEnCartelera(@RequestParam(required = false) String genero,
+            WebRequest request) {
+        CarteleraSerializada cartelera = carteleraService.getCartelera(genero);
+
+        if (request.checkNotModified(cartelera.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(cartelera.getEtag())
+                .body(cartelera.getJson());
+    }
+
+    @GetMapping("/cartelera/generos")
+    @Operation(summary = "Obtener el número de películas en cartelera por género", description = "Devuelve los géneros con al menos una película en cartelera, ordenados de más a menos películas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Géneros obtenidos correctamente")
+    })
+    public ResponseEntity<List<GeneroFacetaDTO>> getGenerosCartelera() {
+        return ResponseEntity.ok(generoService.getFacetas());
+    }
+
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar películas en el catálogo", description = "Busca por título, director, reparto y género, sin distinguir mayúsculas ni tildes y admitiendo palabras incompletas. Los resultados se ordenan por relevancia; las películas descatalogadas no se incluyen.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados obtenidos correctamente"),
+            @ApiResponse(responseCode = "400", description = "Límite fuera de rango")
+    })
+    public ResponseEntity<List<PeliculaResumenDTO>> buscarPeliculas(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(busquedaPeliculasService.buscar(q, limite));
+    }
+
+    @GetMapping("/cartelera/pagina")
+    @Operation(summary = "Obtener una página de la cartelera", description = "Devuelve un resumen de las películas en cartelera (sin sesiones) ordenadas por fechaEstreno (más recientes primero), calificacionTmdb (mejor valoradas primero) o titulo. Para obtener la página siguiente se indica en 'despues' el id de la última película recibida; opcionalmente se filtra por estado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Películas obtenidas correctamente"),
+            @ApiResponse(responseCode = "400", description = "Orden, estado o límite no válidos, o película del cursor inexistente")
+    })
+    public ResponseEntity<List<PeliculaResumenDTO>> getPaginaCartelera(@RequestParam(required = false) Estado estado,
+            @RequestParam(defaultValue = "fechaEstreno") String orden, @RequestParam(required = false) Integer despues,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(peliculaService.getPaginaCartelera(estado, orden, despues, limite));
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener una página del catálogo completo", description = "Igual que la página de cartelera, pero incluye las películas descatalogadas. Solo accesible por administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Películas obtenidas correctamente"),
+            @ApiResponse(responseCode = "400", description = "Orden o límite no válidos, o película del cursor inexistente"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<PeliculaResumenDTO>> getPaginaPeliculas(@RequestParam(required = false) Estado estado,
+            @RequestParam(defaultValue = "titulo") String orden, @RequestParam(required = false) Integer despues,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(peliculaService.getPaginaPeliculas(estado, orden, despues, limite));
     }
 
     @GetMapping("/{id}")
@@ -121,7 +199,7 @@ public class PeliculaController {
             return ResponseEntity.status(HttpStatus.OK).body("Película eliminada correctamente");
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("Película no encontrada o tiene sesiones asociadas");
+                    .body("Película no encontrada o tiene sesiones asociadas, actuales o archivadas");
         }
     }
 }
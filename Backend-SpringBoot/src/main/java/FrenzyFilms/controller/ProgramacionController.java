@@ -0,0 +1,35 @@
+package FrenzyFilms.controller;
+
+import FrenzyFilms.dto.ProgramacionDiaDTO;
+import FrenzyFilms.service.ProgramacionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/programacion")
+@Tag(name = "Programación", description = "Programación diaria del cine en todas las salas")
+public class ProgramacionController {
+
+    @Autowired
+    private ProgramacionService programacionService;
+
+    @GetMapping("/{fecha}")
+    @Operation(summary = "Obtener la programación de un día", description = "Devuelve todas las sesiones de la fecha indicada (yyyy-MM-dd), agrupadas por película y sala, con los asientos disponibles de cada una.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Programación obtenida correctamente"),
+            @ApiResponse(responseCode = "400", description = "Fecha inválida")
+    })
+    public ResponseEntity<ProgramacionDiaDTO> getProgramacion(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(programacionService.getProgramacion(fecha));
+    }
+}
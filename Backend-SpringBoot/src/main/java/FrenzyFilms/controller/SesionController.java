@@ -1,12 +1,25 @@
 
 package FrenzyFilms.controller;
 
+import FrenzyFilms.dto.BloqueAsientosDTO;
+import FrenzyFilms.dto.DisponibilidadSesionDTO;
+import FrenzyFilms.dto.InformeProgramacionDTO;
+import FrenzyFilms.dto.MapaAsientosDTO;
+import FrenzyFilms.dto.OptimizacionHorarioDTO;
+import FrenzyFilms.dto.PlantillaSesionesDTO;
+import FrenzyFilms.dto.PropuestaHorarioDTO;
+import FrenzyFilms.dto.SesionDetalleDTO;
 import FrenzyFilms.entity.Entrada;
-import FrenzyFilms.entity.Pelicula;
-import FrenzyFilms.entity.Sala;
 import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.entity.SesionHistorica;
+import FrenzyFilms.service.AsientoService;
+import FrenzyFilms.service.DisponibilidadService;
 import FrenzyFilms.service.EntradaService;
+import FrenzyFilms.service.EventosAsientosService;
+import FrenzyFilms.service.HistoricoService;
+import FrenzyFilms.service.OptimizadorHorariosService;
 import FrenzyFilms.service.PeliculaService;
+import FrenzyFilms.service.PlanificacionSesionesService;
 import FrenzyFilms.service.SalaService;
 import FrenzyFilms.service.SesionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,9 +29,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -39,6 +57,24 @@ public class SesionController {
     @Autowired
     private EntradaService entradaService;
 
+    @Autowired
+    private AsientoService asientoService;
+
+    @Autowired
+    private EventosAsientosService eventosAsientosService;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private PlanificacionSesionesService planificacionSesionesService;
+
+    @Autowired
+    private OptimizadorHorariosService optimizadorHorariosService;
+
+    @Autowired
+    private HistoricoService historicoService;
+
     @GetMapping("/sala/{idSala}")
     @Operation(summary = "Obtener todas las sesiones por sala", description = "Devuelve todas las sesiones asociadas a una sala específica. Solo accesible por administradores.")
     @ApiResponses(value = {
@@ -85,42 +121,68 @@ public class SesionController {
         return ResponseEntity.ok(sesiones);
     }
 
+    @GetMapping("/historico/sala/{idSala}")
+    @Operation(summary = "Obtener las sesiones archivadas de una sala", description = "Devuelve las sesiones pasadas que ya se han movido al histórico, de la más reciente a la más antigua. Solo accesible por administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sesiones archivadas obtenidas correctamente"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<SesionHistorica>> getSesionesHistoricasPorSala(@PathVariable int idSala) {
+        return ResponseEntity.ok(historicoService.getSesionesHistoricasBySala(idSala));
+    }
+
+    @GetMapping("/historico/pelicula/{idPelicula}")
+    @Operation(summary = "Obtener las sesiones archivadas de una película", description = "Devuelve las sesiones pasadas que ya se han movido al histórico, de la más reciente a la más antigua. Solo accesible por administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sesiones archivadas obtenidas correctamente"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<SesionHistorica>> getSesionesHistoricasPorPelicula(@PathVariable int idPelicula) {
+        return ResponseEntity.ok(historicoService.getSesionesHistoricasByPelicula(idPelicula));
+    }
+
     @GetMapping("/futuras/pelicula/{idPelicula}")
-    @Operation(summary = "Obtener sesiones futuras por película", description = "Devuelve únicamente las sesiones futuras asociadas a una película.")
+    @Operation(summary = "Obtener sesiones futuras por película", description = "Devuelve las sesiones futuras asociadas a una película, ordenadas por fecha y hora de inicio. Sin 'despues' ni 'limite' se devuelven todas; si se pagina, cada página tiene 'limite' sesiones (50 por defecto) y para obtener la siguiente se indica en 'despues' el id de la última sesión recibida.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sesiones futuras encontradas"),
+            @ApiResponse(responseCode = "400", description = "Límite fuera de rango o sesión del cursor inexistente"),
             @ApiResponse(responseCode = "404", description = "Película no encontrada")
     })
-    public ResponseEntity<Set<Sesion>> getSesionesFuturasPorPelicula(@PathVariable int idPelicula) {
-        Optional<Pelicula> pelicula = peliculaService.getPeliculaById(idPelicula);
-
-        if (pelicula.isPresent()) {
-            Set<Sesion> listaSesiones = pelicula.get().getSesiones();
-            Set<Sesion> futuras = sesionService.getSesionesFuturas(listaSesiones);
-            return ResponseEntity.ok(futuras);
+    public ResponseEntity<List<Sesion>> getSesionesFuturasPorPelicula(@PathVariable int idPelicula,
+            @RequestParam(required = false) Integer despues, @RequestParam(required = false) Integer limite) {
+        if (peliculaService.getPeliculaById(idPelicula).isPresent()) {
+            return ResponseEntity.ok(sesionService.getSesionesFuturasByPelicula(idPelicula, despues, limite));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/futuras/sala/{idSala}")
-    @Operation(summary = "Obtener sesiones futuras por sala", description = "Devuelve únicamente las sesiones futuras asociadas a una sala.")
+    @Operation(summary = "Obtener sesiones futuras por sala", description = "Devuelve las sesiones futuras asociadas a una sala, ordenadas por fecha y hora de inicio. Sin 'despues' ni 'limite' se devuelven todas; si se pagina, cada página tiene 'limite' sesiones (50 por defecto) y para obtener la siguiente se indica en 'despues' el id de la última sesión recibida.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sesiones futuras encontradas"),
+            @ApiResponse(responseCode = "400", description = "Límite fuera de rango o sesión del cursor inexistente"),
             @ApiResponse(responseCode = "404", description = "Sala no encontrada")
     })
-    public ResponseEntity<Set<Sesion>> getSesionesFuturasPorSala(@PathVariable int idSala) {
-        Optional<Sala> sala = salaService.getSalaById(idSala);
-
-        if (sala.isPresent()) {
-            Set<Sesion> listaSesiones = sala.get().getSesiones();
-            Set<Sesion> futuras = sesionService.getSesionesFuturas(listaSesiones);
-            return ResponseEntity.ok(futuras);
+    public ResponseEntity<List<Sesion>> getSesionesFuturasPorSala(@PathVariable int idSala,
+            @RequestParam(required = false) Integer despues, @RequestParam(required = false) Integer limite) {
+        if (salaService.getSalaById(idSala).isPresent()) {
+            return ResponseEntity.ok(sesionService.getSesionesFuturasBySala(idSala, despues, limite));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/disponibilidad")
+    @Operation(summary = "Obtener los asientos disponibles de varias sesiones", description = "Devuelve la disponibilidad de todas las sesiones indicadas con una única consulta. Las sesiones inexistentes se omiten.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Disponibilidad obtenida correctamente"),
+            @ApiResponse(responseCode = "400", description = "Demasiadas sesiones en una misma consulta")
+    })
+    public ResponseEntity<List<DisponibilidadSesionDTO>> getDisponibilidad(@RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(disponibilidadService.getDisponibilidad(ids));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener una sesión por su ID")
     @ApiResponses(value = {
@@ -136,6 +198,103 @@ public class SesionController {
         }
     }
 
+    @GetMapping("/{id}/detalle")
+    @Operation(summary = "Obtener el detalle de una sesión", description = "Devuelve en una sola respuesta la sesión, el resumen de su película, las dimensiones de la sala y los asientos disponibles.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Detalle de la sesión obtenido correctamente"),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada")
+    })
+    public ResponseEntity<SesionDetalleDTO> getSesionDetalle(@PathVariable int id) {
+        Optional<SesionDetalleDTO> detalle = sesionService.getSesionDetalle(id);
+        if (detalle.isPresent()) {
+            return ResponseEntity.ok(detalle.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/asientos")
+    @Operation(summary = "Obtener el mapa compacto de asientos de una sesión", description = "Devuelve las dimensiones de la sala y la ocupación codificada como mapas de bits en Base64.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Mapa de asientos obtenido correctamente"),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada")
+    })
+    public ResponseEntity<MapaAsientosDTO> getMapaAsientos(@PathVariable int id) {
+        return ResponseEntity.ok(asientoService.getMapaAsientos(id));
+    }
+
+    @GetMapping(value = "/{id}/asientos/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse a los cambios de asientos de una sesión", description = "Flujo Server-Sent Events con los asientos ocupados y liberados, agrupados en ventanas cortas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suscripción abierta"),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada")
+    })
+    public SseEmitter suscribirCambiosAsientos(@PathVariable int id) {
+        if (!sesionService.getSesionById(id).isPresent()) {
+            throw new EntityNotFoundException("Sesión no encontrada.");
+        }
+        return eventosAsientosService.suscribir(id);
+    }
+
+    @GetMapping("/{id}/asientos/mejores")
+    @Operation(summary = "Proponer el mejor bloque de asientos contiguos", description = "Busca el bloque libre más centrado para el número de personas indicado, evitando dejar asientos sueltos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bloque de asientos encontrado"),
+            @ApiResponse(responseCode = "400", description = "Número de personas inválido"),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada"),
+            @ApiResponse(responseCode = "409", description = "No hay asientos contiguos suficientes o la sesión ya ha comenzado")
+    })
+    public ResponseEntity<BloqueAsientosDTO> buscarMejoresAsientos(@PathVariable int id,
+            @RequestParam int personas) {
+        return ResponseEntity.ok(asientoService.buscarMejoresAsientos(id, personas));
+    }
+
+    @PostMapping("/{id}/asientos/mejores")
+    @Operation(summary = "Retener el mejor bloque de asientos contiguos", description = "Igual que la búsqueda, pero deja los asientos retenidos temporalmente para el usuario logueado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bloque de asientos retenido"),
+            @ApiResponse(responseCode = "400", description = "Número de personas inválido"),
+            @ApiResponse(responseCode = "404", description = "Sesión no encontrada"),
+            @ApiResponse(responseCode = "409", description = "No hay asientos contiguos suficientes o la sesión ya ha comenzado")
+    })
+    public ResponseEntity<BloqueAsientosDTO> reservarMejoresAsientos(@PathVariable int id,
+            @RequestParam int personas) {
+        return ResponseEntity.ok(asientoService.reservarMejoresAsientos(id, personas));
+    }
+
+    @PostMapping("/lote")
+    @Operation(summary = "Programar sesiones en bloque a partir de una plantilla", description = "Crea cada sesión de la plantilla en todos los días indicados. Las que no son válidas o tienen conflicto de horario se rechazan sin impedir crear las demás. Solo administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Informe con las sesiones creadas y rechazadas"),
+            @ApiResponse(responseCode = "400", description = "Plantilla vacía o demasiado grande"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<InformeProgramacionDTO> programarPlantilla(@RequestBody PlantillaSesionesDTO plantilla) {
+        return ResponseEntity.ok(planificacionSesionesService.programarPlantilla(plantilla));
+    }
+
+    @PostMapping("/copiar-semana")
+    @Operation(summary = "Copiar la programación de una semana a la semana siguiente", description = "Copia las sesiones de los siete días que empiezan en la fecha indicada (dd-MM-yyyy). Solo administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Informe con las sesiones creadas y rechazadas"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<InformeProgramacionDTO> copiarSemana(
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate desde) {
+        return ResponseEntity.ok(planificacionSesionesService.copiarSemana(desde));
+    }
+
+    @PostMapping("/optimizar")
+    @Operation(summary = "Proponer una programación que llene los huecos libres de las salas", description = "Calcula, sin guardar nada, qué sesiones de las películas candidatas aprovechan mejor el horario de apertura de cada sala en los días indicados. Solo administradores.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Propuesta calculada correctamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de la petición inválidos"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<PropuestaHorarioDTO> optimizarHorario(@RequestBody OptimizacionHorarioDTO peticion) {
+        return ResponseEntity.ok(optimizadorHorariosService.optimizar(peticion));
+    }
+
     @PostMapping("/P{idPelicula}/S{idSala}")
     @Operation(summary = "Crear una nueva sesión")
     @ApiResponses(value = {
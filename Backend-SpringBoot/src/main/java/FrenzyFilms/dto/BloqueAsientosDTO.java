@@ -0,0 +1,20 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BloqueAsientosDTO {
+    private int idSesion;
+    private int numFila;
+    private List<Integer> asientos;
+
+    // Solo se informa cuando los asientos han quedado retenidos
+    private LocalDateTime retenidoHasta;
+}
@@ -0,0 +1,18 @@
+package FrenzyFilms.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CambiosAsientosDTO {
+    private int idSesion;
+
+    // Cada asiento se envía como [numFila, numAsiento]
+    private List<int[]> ocupados;
+    private List<int[]> liberados;
+}
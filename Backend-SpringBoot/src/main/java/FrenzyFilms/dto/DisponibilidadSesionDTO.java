@@ -0,0 +1,13 @@
+package FrenzyFilms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DisponibilidadSesionDTO {
+    private int idSesion;
+    private int asientosDisponibles;
+}
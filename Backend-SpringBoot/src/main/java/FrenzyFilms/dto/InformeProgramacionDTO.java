@@ -0,0 +1,16 @@
+package FrenzyFilms.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InformeProgramacionDTO {
+    private int creadas;
+    private int rechazadas;
+    private List<ResultadoSesionDTO> resultados;
+}
@@ -0,0 +1,24 @@
+package FrenzyFilms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mapa compacto de asientos de una sesión.
+ *
+ * Los campos ocupados y retenidos son mapas de bits en Base64 con un bit por
+ * asiento, recorriendo la sala fila a fila: el asiento (fila, asiento) es el
+ * bit i = (fila - 1) * numColumnas + (asiento - 1), que está en el byte i / 8
+ * y en la posición i % 8 empezando por el bit menos significativo.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MapaAsientosDTO {
+    private int idSesion;
+    private int numFilas;
+    private int numColumnas;
+    private String ocupados;
+    private String retenidos;
+}
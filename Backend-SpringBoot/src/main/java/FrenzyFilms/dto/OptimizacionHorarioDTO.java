@@ -0,0 +1,32 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OptimizacionHorarioDTO {
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    @Schema(type = "array", example = "[\"21-05-2026\", \"22-05-2026\"]")
+    private List<LocalDate> dias;
+    // Si se omite se usan todas las salas
+    private List<Integer> idsSalas;
+    private List<PeliculaCandidataDTO> peliculas;
+    private int minutosLimpieza;
+    @Schema(type = "string", pattern = "HH:mm:ss", example = "16:00:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    private LocalTime apertura;
+    // Si es anterior o igual a la apertura se entiende que es del día siguiente
+    @Schema(type = "string", pattern = "HH:mm:ss", example = "01:00:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    private LocalTime cierre;
+}
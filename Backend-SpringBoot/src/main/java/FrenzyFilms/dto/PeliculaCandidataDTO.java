@@ -0,0 +1,14 @@
+package FrenzyFilms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PeliculaCandidataDTO {
+    private int idPelicula;
+    // De 1 a 100; a igual ocupación de la sala se prefieren las de mayor prioridad
+    private int prioridad;
+}
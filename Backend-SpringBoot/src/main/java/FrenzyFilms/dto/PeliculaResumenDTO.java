@@ -0,0 +1,20 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalDate;
+
+import FrenzyFilms.entity.Estado;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PeliculaResumenDTO {
+    private int idPelicula;
+    private String titulo;
+    private String cartel;
+    private LocalDate fechaEstreno;
+    private Estado estado;
+    private double calificacionTmdb;
+}
@@ -0,0 +1,22 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlantillaSesionesDTO {
+    // Cada sesión de la plantilla se programa en todos los días indicados
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    @Schema(type = "array", example = "[\"21-05-2026\", \"22-05-2026\"]")
+    private List<LocalDate> dias;
+    private List<SesionPlantillaDTO> sesiones;
+}
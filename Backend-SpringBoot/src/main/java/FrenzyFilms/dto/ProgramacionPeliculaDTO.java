@@ -0,0 +1,19 @@
+package FrenzyFilms.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProgramacionPeliculaDTO {
+    private int idPelicula;
+    private String titulo;
+    private String cartel;
+    private int duracion;
+    private String clasificacionEdad;
+    private List<ProgramacionSalaDTO> salas;
+}
@@ -0,0 +1,16 @@
+package FrenzyFilms.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProgramacionSalaDTO {
+    private int idSala;
+    private int numSala;
+    private List<SesionProgramadaDTO> sesiones;
+}
@@ -0,0 +1,19 @@
+package FrenzyFilms.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PropuestaHorarioDTO {
+    private List<SesionPropuestaDTO> sesiones;
+    private long minutosProgramados;
+    // Minutos de apertura sin proyección, incluida la limpieza entre sesiones
+    private long minutosLibres;
+    // Porcentaje del horario de apertura con proyección, contando las sesiones ya existentes
+    private double ocupacion;
+}
@@ -0,0 +1,17 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RetencionDTO {
+    private int idSesion;
+    private int numFila;
+    private int numAsiento;
+    private LocalDateTime expiraEn;
+}
@@ -0,0 +1,36 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import FrenzyFilms.entity.Formato;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SesionDetalleDTO {
+    private int idSesion;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate fecha;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    private LocalTime horaInicio;
+    private double precioEntrada;
+    private Formato formato;
+    private int asientosDisponibles;
+
+    private int idPelicula;
+    private String tituloPelicula;
+    private String cartelPelicula;
+    private int duracion;
+    private String clasificacionEdad;
+
+    private int idSala;
+    private int numSala;
+    private int numFilas;
+    private int numColumnas;
+}
@@ -0,0 +1,25 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import FrenzyFilms.entity.Formato;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SesionPlantillaDTO {
+    private int idPelicula;
+    private int idSala;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    @Schema(type = "array", example = "[\"17:00:00\", \"20:30:00\"]")
+    private List<LocalTime> horasInicio;
+    private Formato formato;
+    private double precioEntrada;
+}
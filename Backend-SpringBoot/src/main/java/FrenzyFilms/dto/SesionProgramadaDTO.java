@@ -0,0 +1,22 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import FrenzyFilms.entity.Formato;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SesionProgramadaDTO {
+    private int idSesion;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+    private LocalTime horaInicio;
+    private Formato formato;
+    private double precioEntrada;
+    private int asientosDisponibles;
+}
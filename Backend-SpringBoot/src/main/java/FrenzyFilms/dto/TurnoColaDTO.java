@@ -0,0 +1,19 @@
+package FrenzyFilms.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TurnoColaDTO {
+    private String turno;
+    private int idSesion;
+    private long posicion;
+    private boolean admitido;
+    private Long esperaEstimadaSegundos;
+    private LocalDateTime validoHasta;
+}
@@ -0,0 +1,49 @@
+package FrenzyFilms.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+// Cerrojo compartido por todas las instancias para que una tarea programada solo se ejecute en una
+// a la vez. Caduca en bloqueadoHasta, de modo que una instancia caída no lo retiene para siempre.
+@Entity
+public class BloqueoTarea {
+
+	@Id
+	private String nombre;
+
+	@Column(nullable = false)
+	private LocalDateTime bloqueadoHasta;
+
+	private String bloqueadoPor;
+
+	public BloqueoTarea() {
+		super();
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	public LocalDateTime getBloqueadoHasta() {
+		return bloqueadoHasta;
+	}
+
+	public void setBloqueadoHasta(LocalDateTime bloqueadoHasta) {
+		this.bloqueadoHasta = bloqueadoHasta;
+	}
+
+	public String getBloqueadoPor() {
+		return bloqueadoPor;
+	}
+
+	public void setBloqueadoPor(String bloqueadoPor) {
+		this.bloqueadoPor = bloqueadoPor;
+	}
+}
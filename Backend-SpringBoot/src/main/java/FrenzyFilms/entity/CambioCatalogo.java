@@ -0,0 +1,67 @@
+package FrenzyFilms.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Película cuyo título, géneros o estado ha cambiado, para que el resto de instancias la vuelvan a indexar.
+// Solo se insertan filas, de modo que los cambios simultáneos no compiten por la misma fila.
+@Entity
+@Table(indexes = @Index(name = "cambio_catalogo_fecha_idx", columnList = "fecha"))
+public class CambioCatalogo {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.AUTO)
+	private Long id;
+
+	private int idPelicula;
+
+	// Instancia que hizo el cambio: ella ya tiene sus índices al día
+	@Column(nullable = false)
+	private String origen;
+
+	@Column(nullable = false)
+	private LocalDateTime fecha;
+
+	public CambioCatalogo() {
+		super();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public int getIdPelicula() {
+		return idPelicula;
+	}
+
+	public void setIdPelicula(int idPelicula) {
+		this.idPelicula = idPelicula;
+	}
+
+	public String getOrigen() {
+		return origen;
+	}
+
+	public void setOrigen(String origen) {
+		this.origen = origen;
+	}
+
+	public LocalDateTime getFecha() {
+		return fecha;
+	}
+
+	public void setFecha(LocalDateTime fecha) {
+		this.fecha = fecha;
+	}
+}
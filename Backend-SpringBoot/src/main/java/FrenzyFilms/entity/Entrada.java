@@ -2,9 +2,13 @@ package FrenzyFilms.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Min;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "entrada_sesion_asiento_key", columnNames = { "sesion_id",
+		"num_fila", "num_asiento" }))
 public class Entrada extends DomainEntity {
 	
 	@Column(nullable = false)
@@ -0,0 +1,69 @@
+package FrenzyFilms.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Entrada de una sesión archivada; conserva su id original
+@Entity
+@Table(indexes = {
+		@Index(name = "entrada_historica_usuario_idx", columnList = "id_usuario"),
+		@Index(name = "entrada_historica_sesion_idx", columnList = "id_sesion") })
+public class EntradaHistorica {
+
+	@Id
+	private int id;
+
+	private int numAsiento;
+
+	private int numFila;
+
+	private int idSesion;
+
+	private Integer idUsuario;
+
+	public EntradaHistorica() {
+		super();
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public int getNumAsiento() {
+		return numAsiento;
+	}
+
+	public void setNumAsiento(int numAsiento) {
+		this.numAsiento = numAsiento;
+	}
+
+	public int getNumFila() {
+		return numFila;
+	}
+
+	public void setNumFila(int numFila) {
+		this.numFila = numFila;
+	}
+
+	public int getIdSesion() {
+		return idSesion;
+	}
+
+	public void setIdSesion(int idSesion) {
+		this.idSesion = idSesion;
+	}
+
+	public Integer getIdUsuario() {
+		return idUsuario;
+	}
+
+	public void setIdUsuario(Integer idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+}
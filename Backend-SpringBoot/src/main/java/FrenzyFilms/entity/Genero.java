@@ -0,0 +1,25 @@
+package FrenzyFilms.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.validation.constraints.NotBlank;
+
+@Entity
+public class Genero extends DomainEntity {
+
+	@NotBlank
+	@Column(nullable = false, unique = true)
+	private String nombre;
+
+	public Genero() {
+		super();
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+}
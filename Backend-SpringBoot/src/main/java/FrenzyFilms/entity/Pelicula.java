@@ -2,8 +2,12 @@ package FrenzyFilms.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 
 import java.time.LocalDate;
@@ -11,7 +15,12 @@ import java.util.Set;
 
 import org.hibernate.validator.constraints.URL;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "pelicula_estado_idx", columnList = "estado"),
+        @Index(name = "pelicula_fecha_estreno_idx", columnList = "fecha_estreno") })
 public class Pelicula extends DomainEntity {
 
     // Atributos recogidos de la BD de TMDB
@@ -63,6 +72,15 @@ public class Pelicula extends DomainEntity {
     @JoinColumn(name = "pelicula_id")
     private Set<Sesion> sesiones;
 
+    // Forma normalizada de los géneros; el campo genero se mantiene para el frontend
+    @ManyToMany
+    @JoinTable(name = "pelicula_genero",
+            joinColumns = @JoinColumn(name = "pelicula_id"),
+            inverseJoinColumns = @JoinColumn(name = "genero_id"),
+            indexes = @Index(name = "pelicula_genero_genero_idx", columnList = "genero_id"))
+    @JsonIgnore
+    private Set<Genero> generos;
+
     // Constructor por defecto
     public Pelicula() {
         super();
@@ -180,4 +198,12 @@ public class Pelicula extends DomainEntity {
     public void setSesiones(Set<Sesion> sesiones) {
         this.sesiones = sesiones;
     }
-}
\ No newline at end of file
+
+    public Set<Genero> getGeneros() {
+        return generos;
+    }
+
+    public void setGeneros(Set<Genero> generos) {
+        this.generos = generos;
+    }
+}
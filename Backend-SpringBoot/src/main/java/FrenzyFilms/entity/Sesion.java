@@ -9,11 +9,17 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "sesion_fecha_hora_idx", columnList = "fecha, hora_inicio"),
+		@Index(name = "sesion_pelicula_fecha_hora_idx", columnList = "pelicula_id, fecha, hora_inicio"),
+		@Index(name = "sesion_sala_fecha_hora_idx", columnList = "sala_id, fecha, hora_inicio") })
 public class Sesion extends DomainEntity {
 
 	@Schema(type = "string", pattern = "dd-MM-yyyy", example = "21-05-2026")
@@ -32,6 +38,11 @@ public class Sesion extends DomainEntity {
 
 	private Formato formato;
 
+	// Contador desnormalizado; se actualiza en la misma transacción que las compras y cancelaciones
+	@Schema(accessMode = Schema.AccessMode.READ_ONLY)
+	@Min(0)
+	private Integer asientosDisponibles;
+
 	@Schema(hidden = true)
 	@OneToMany
 	@JoinColumn(name = "sesion_id")
@@ -73,6 +84,14 @@ public class Sesion extends DomainEntity {
 		this.formato = formato;
 	}
 
+	public Integer getAsientosDisponibles() {
+		return asientosDisponibles;
+	}
+
+	public void setAsientosDisponibles(Integer asientosDisponibles) {
+		this.asientosDisponibles = asientosDisponibles;
+	}
+
 	public Set<Entrada> getEntradas() {
 		return entradas;
 	}
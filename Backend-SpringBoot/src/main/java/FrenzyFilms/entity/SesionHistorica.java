@@ -0,0 +1,143 @@
+package FrenzyFilms.entity;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Sesión ya terminada que se ha movido fuera de la tabla sesion. Conserva su id original y copia
+// los datos de película y sala necesarios para mostrarla aunque estas cambien o se eliminen.
+@Entity
+@Table(indexes = {
+		@Index(name = "sesion_historica_pelicula_idx", columnList = "id_pelicula, fecha"),
+		@Index(name = "sesion_historica_sala_idx", columnList = "id_sala, fecha") })
+public class SesionHistorica {
+
+	@Id
+	private int id;
+
+	@Schema(type = "string", pattern = "dd-MM-yyyy", example = "21-05-2026")
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+	@Column(nullable = false)
+	private LocalDate fecha;
+
+	@Schema(type = "string", pattern = "HH:mm:ss", example = "15:30:00")
+	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "HH:mm:ss")
+	@Column(nullable = false)
+	private LocalTime horaInicio;
+
+	private double precioEntrada;
+
+	private Formato formato;
+
+	private Integer idPelicula;
+
+	private String tituloPelicula;
+
+	private String cartelPelicula;
+
+	private Integer idSala;
+
+	private Integer numSala;
+
+	private int entradasVendidas;
+
+	public SesionHistorica() {
+		super();
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public LocalDate getFecha() {
+		return fecha;
+	}
+
+	public void setFecha(LocalDate fecha) {
+		this.fecha = fecha;
+	}
+
+	public LocalTime getHoraInicio() {
+		return horaInicio;
+	}
+
+	public void setHoraInicio(LocalTime horaInicio) {
+		this.horaInicio = horaInicio;
+	}
+
+	public double getPrecioEntrada() {
+		return precioEntrada;
+	}
+
+	public void setPrecioEntrada(double precioEntrada) {
+		this.precioEntrada = precioEntrada;
+	}
+
+	public Formato getFormato() {
+		return formato;
+	}
+
+	public void setFormato(Formato formato) {
+		this.formato = formato;
+	}
+
+	public Integer getIdPelicula() {
+		return idPelicula;
+	}
+
+	public void setIdPelicula(Integer idPelicula) {
+		this.idPelicula = idPelicula;
+	}
+
+	public String getTituloPelicula() {
+		return tituloPelicula;
+	}
+
+	public void setTituloPelicula(String tituloPelicula) {
+		this.tituloPelicula = tituloPelicula;
+	}
+
+	public String getCartelPelicula() {
+		return cartelPelicula;
+	}
+
+	public void setCartelPelicula(String cartelPelicula) {
+		this.cartelPelicula = cartelPelicula;
+	}
+
+	public Integer getIdSala() {
+		return idSala;
+	}
+
+	public void setIdSala(Integer idSala) {
+		this.idSala = idSala;
+	}
+
+	public Integer getNumSala() {
+		return numSala;
+	}
+
+	public void setNumSala(Integer numSala) {
+		this.numSala = numSala;
+	}
+
+	public int getEntradasVendidas() {
+		return entradasVendidas;
+	}
+
+	public void setEntradasVendidas(int entradasVendidas) {
+		this.entradasVendidas = entradasVendidas;
+	}
+}
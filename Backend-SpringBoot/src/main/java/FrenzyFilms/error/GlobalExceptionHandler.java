@@ -87,6 +87,8 @@ public class GlobalExceptionHandler {
             response.put("numSala", "Este numero de sala ya está registrado.");
         } else if (rawMessage != null && rawMessage.contains("pelicula_tmdb_id_key")) {
             response.put("tmdbId", "Esta película ya está registrada.");
+        } else if (rawMessage != null && rawMessage.contains("entrada_sesion_asiento_key")) {
+            response.put("asiento", "El asiento ya está ocupado.");
         } else {
             response.put("error", "Error de integridad en los datos. Revisa que no estés duplicando información.");
         }
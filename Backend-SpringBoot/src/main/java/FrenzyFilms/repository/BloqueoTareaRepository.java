@@ -0,0 +1,29 @@
+package FrenzyFilms.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import FrenzyFilms.entity.BloqueoTarea;
+
+@Repository
+public interface BloqueoTareaRepository extends JpaRepository<BloqueoTarea, String> {
+
+	// Solo una instancia puede ver caducado el cerrojo y quedárselo: la otra actualiza 0 filas
+	@Modifying
+	@Query("UPDATE BloqueoTarea b SET b.bloqueadoHasta = :hasta, b.bloqueadoPor = :instancia "
+			+ "WHERE b.nombre = :nombre AND b.bloqueadoHasta <= :ahora")
+	int adquirir(@Param("nombre") String nombre, @Param("instancia") String instancia,
+			@Param("ahora") LocalDateTime ahora, @Param("hasta") LocalDateTime hasta);
+
+	@Modifying
+	@Query("UPDATE BloqueoTarea b SET b.bloqueadoHasta = :ahora "
+			+ "WHERE b.nombre = :nombre AND b.bloqueadoPor = :instancia")
+	int liberar(@Param("nombre") String nombre, @Param("instancia") String instancia,
+			@Param("ahora") LocalDateTime ahora);
+
+}
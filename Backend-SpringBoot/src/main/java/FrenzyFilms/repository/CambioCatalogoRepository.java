@@ -0,0 +1,25 @@
+package FrenzyFilms.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import FrenzyFilms.entity.CambioCatalogo;
+
+@Repository
+public interface CambioCatalogoRepository extends JpaRepository<CambioCatalogo, Long> {
+
+	@Query("SELECT c FROM CambioCatalogo c WHERE c.fecha > :desde AND c.origen <> :origen")
+	List<CambioCatalogo> findDeOtrasInstanciasDesde(@Param("desde") LocalDateTime desde,
+			@Param("origen") String origen);
+
+	@Modifying
+	@Query("DELETE FROM CambioCatalogo c WHERE c.fecha < :limite")
+	int deleteAnterioresA(@Param("limite") LocalDateTime limite);
+
+}
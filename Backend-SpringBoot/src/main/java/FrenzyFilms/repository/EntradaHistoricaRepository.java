@@ -0,0 +1,33 @@
+package FrenzyFilms.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import FrenzyFilms.dto.EntradaDetalladaPlanoDTO;
+import FrenzyFilms.entity.EntradaHistorica;
+
+@Repository
+public interface EntradaHistoricaRepository extends JpaRepository<EntradaHistorica, Integer> {
+
+	@Query("SELECT new FrenzyFilms.dto.EntradaDetalladaPlanoDTO(e.id, e.numFila, e.numAsiento, s.id, s.fecha, "
+			+ "s.horaInicio, s.precioEntrada, s.formato, COALESCE(s.numSala, 0), s.tituloPelicula, s.cartelPelicula) "
+			+ "FROM EntradaHistorica e JOIN SesionHistorica s ON s.id = e.idSesion "
+			+ "WHERE e.idUsuario = :idUsuario ORDER BY s.fecha DESC, s.horaInicio DESC, e.numFila, e.numAsiento")
+	List<EntradaDetalladaPlanoDTO> findDetalladasByUsuario(@Param("idUsuario") int idUsuario);
+
+	@Modifying
+	@Query(value = """
+			INSERT INTO entrada_historica (id, num_asiento, num_fila, id_sesion, id_usuario)
+			SELECT e.id, e.num_asiento, e.num_fila, e.sesion_id, e.usuario_id
+			FROM entrada e
+			WHERE e.sesion_id IN (:idsSesiones)
+			""", nativeQuery = true)
+	int archivarEntradasDeSesiones(@Param("idsSesiones") Collection<Integer> idsSesiones);
+
+}
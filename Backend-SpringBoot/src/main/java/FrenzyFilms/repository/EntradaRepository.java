@@ -1,6 +1,10 @@
 package FrenzyFilms.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import FrenzyFilms.entity.Entrada;
@@ -8,4 +12,11 @@ import FrenzyFilms.entity.Entrada;
 @Repository
 public interface EntradaRepository extends JpaRepository<Entrada, Integer> {
 
+	@Query(value = "SELECT COUNT(*) FROM entrada WHERE usuario_id = :idUsuario AND sesion_id = :idSesion", nativeQuery = true)
+	int countByUsuarioAndSesion(@Param("idUsuario") int idUsuario, @Param("idSesion") int idSesion);
+
+	// Devuelve [numFila, numAsiento] de las entradas vendidas de la sesión
+	@Query(value = "SELECT num_fila, num_asiento FROM entrada WHERE sesion_id = :idSesion", nativeQuery = true)
+	List<Object[]> findAsientosBySesion(@Param("idSesion") int idSesion);
+
 }
@@ -0,0 +1,36 @@
+package FrenzyFilms.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Genero;
+
+@Repository
+public interface GeneroRepository extends JpaRepository<Genero, Integer> {
+
+	List<Genero> findByNombreIn(Collection<String> nombres);
+
+	Optional<Genero> findByNombre(String nombre);
+
+	// Si otra transacción ya lo ha creado no hace nada, en lugar de fallar y anular la transacción en curso
+	@Modifying
+	@Query(value = """
+			INSERT INTO genero (id, version, nombre)
+			VALUES (nextval('domain_entity_seq'), 0, :nombre)
+			ON CONFLICT DO NOTHING
+			""", nativeQuery = true)
+	int insertarSiNoExiste(@Param("nombre") String nombre);
+
+	// Devuelve [id película, nombre del género] de las películas que no están en el estado indicado
+	@Query("SELECT p.id, g.nombre FROM Pelicula p JOIN p.generos g WHERE p.estado <> :estado")
+	List<Object[]> findGenerosDePeliculasConEstadoDistinto(@Param("estado") Estado estado);
+
+}
@@ -1,10 +1,22 @@
 package FrenzyFilms.repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import FrenzyFilms.entity.Estado;
 import FrenzyFilms.entity.Pelicula;
 import FrenzyFilms.entity.Sesion;
 
@@ -12,5 +24,45 @@ import FrenzyFilms.entity.Sesion;
 public interface PeliculaRepository extends JpaRepository<Pelicula, Integer> {
     Optional<Pelicula> findBySesionesContaining(Sesion sesion);
     Optional<Pelicula> findByTmdbId(int tmdbId);
+    List<Pelicula> findByEstadoNot(Estado estado);
+    List<Pelicula> findByGenerosIsEmpty();
+    List<Pelicula> findDistinctByGenerosNombreAndEstadoNot(String genero, Estado estado);
+
+    // Consultas paginadas por clave: continúan a partir de los valores de ordenación de la última película
+    Window<Pelicula> findByEstadoNot(Estado estado, ScrollPosition posicion, Sort orden, Limit limite);
+    Window<Pelicula> findByEstado(Estado estado, ScrollPosition posicion, Sort orden, Limit limite);
+    Window<Pelicula> findAllBy(ScrollPosition posicion, Sort orden, Limit limite);
+
+    // Ciclo de estados: películas estrenadas que ya tienen alguna sesión futura
+    @Query("""
+            SELECT DISTINCT p.id FROM Pelicula p JOIN p.sesiones s
+            WHERE p.estado = :estado AND p.fechaEstreno <= :hoy
+              AND (s.fecha > :hoy OR (s.fecha = :hoy AND s.horaInicio > :hora))
+            ORDER BY p.id
+            """)
+    List<Integer> findIdsEstrenadasConSesionesFuturas(@Param("estado") Estado estado, @Param("hoy") LocalDate hoy,
+            @Param("hora") LocalTime hora, Limit limite);
+
+    @Query("SELECT p.id FROM Pelicula p WHERE p.estado = :estado AND p.fechaEstreno <= :hasta ORDER BY p.id")
+    List<Integer> findIdsEstrenadasAntesDe(@Param("estado") Estado estado, @Param("hasta") LocalDate hasta,
+            Limit limite);
+
+    // Sin sesiones desde la fecha indicada, ni en la programación vigente ni en el archivo
+    @Query("""
+            SELECT p.id FROM Pelicula p
+            WHERE p.estado = :estado AND p.fechaEstreno <= :desde
+              AND NOT EXISTS (SELECT 1 FROM Pelicula p2 JOIN p2.sesiones s WHERE p2.id = p.id AND s.fecha >= :desde)
+              AND NOT EXISTS (SELECT 1 FROM SesionHistorica h WHERE h.idPelicula = p.id AND h.fecha >= :desde)
+            ORDER BY p.id
+            """)
+    List<Integer> findIdsSinSesionesDesde(@Param("estado") Estado estado, @Param("desde") LocalDate desde,
+            Limit limite);
+
+    // Solo cambia las que siguen en el estado anterior, por si se han modificado mientras tanto
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Pelicula p SET p.estado = :nuevo, p.version = p.version + 1 "
+            + "WHERE p.id IN :ids AND p.estado = :anterior")
+    int cambiarEstado(@Param("ids") Collection<Integer> ids, @Param("anterior") Estado anterior,
+            @Param("nuevo") Estado nuevo);
 
 }
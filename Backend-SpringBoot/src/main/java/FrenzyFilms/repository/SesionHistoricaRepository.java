@@ -0,0 +1,37 @@
+package FrenzyFilms.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import FrenzyFilms.entity.SesionHistorica;
+
+@Repository
+public interface SesionHistoricaRepository extends JpaRepository<SesionHistorica, Integer> {
+
+    List<SesionHistorica> findByIdPeliculaOrderByFechaDescHoraInicioDesc(Integer idPelicula);
+
+    List<SesionHistorica> findByIdSalaOrderByFechaDescHoraInicioDesc(Integer idSala);
+
+    boolean existsByIdPelicula(Integer idPelicula);
+
+    // Copia las sesiones con los datos de película y sala que tienen en este momento
+    @Modifying
+    @Query(value = """
+            INSERT INTO sesion_historica (id, fecha, hora_inicio, precio_entrada, formato, id_pelicula,
+                    titulo_pelicula, cartel_pelicula, id_sala, num_sala, entradas_vendidas)
+            SELECT s.id, s.fecha, s.hora_inicio, s.precio_entrada, s.formato, p.id, p.titulo, p.cartel,
+                   sa.id, sa.num_sala, (SELECT COUNT(*) FROM entrada e WHERE e.sesion_id = s.id)
+            FROM sesion s
+            LEFT JOIN pelicula p ON p.id = s.pelicula_id
+            LEFT JOIN sala sa ON sa.id = s.sala_id
+            WHERE s.id IN (:ids)
+            """, nativeQuery = true)
+    int archivarSesiones(@Param("ids") Collection<Integer> ids);
+
+}
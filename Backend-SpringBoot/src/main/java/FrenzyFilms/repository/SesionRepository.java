@@ -1,10 +1,18 @@
 package FrenzyFilms.repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import FrenzyFilms.dto.SesionDetalleDTO;
 import FrenzyFilms.entity.Entrada;
 import FrenzyFilms.entity.Sesion;
 
@@ -12,4 +20,140 @@ import FrenzyFilms.entity.Sesion;
 public interface SesionRepository extends JpaRepository<Sesion, Integer> {
     Optional<Sesion> findByEntradasContaining(Entrada entrada);
 
+    // Sesión con su película y su sala en una sola consulta; los asientos libres aún no descuentan las retenciones
+    @Query("SELECT new FrenzyFilms.dto.SesionDetalleDTO(s.id, s.fecha, s.horaInicio, s.precioEntrada, s.formato, "
+            + "COALESCE(s.asientosDisponibles, sa.numFilas * sa.numColumnas - SIZE(s.entradas)), "
+            + "p.id, p.titulo, p.cartel, p.duracion, p.clasificacionEdad, sa.id, sa.numSala, sa.numFilas, sa.numColumnas) "
+            + "FROM Pelicula p JOIN p.sesiones s, Sala sa JOIN sa.sesiones ss "
+            + "WHERE s.id = :id AND ss.id = :id")
+    Optional<SesionDetalleDTO> findDetalleById(@Param("id") int id);
+
+    // Sesiones de la película posteriores a (fecha, hora, id), en orden de inicio
+    @Query(value = """
+            SELECT s.* FROM sesion s
+            WHERE s.pelicula_id = :idPelicula
+              AND (s.fecha, s.hora_inicio, s.id) > (:fecha, :hora, :id)
+            ORDER BY s.fecha, s.hora_inicio, s.id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Sesion> findSiguientesByPelicula(@Param("idPelicula") int idPelicula, @Param("fecha") LocalDate fecha,
+            @Param("hora") LocalTime hora, @Param("id") int id, @Param("limite") int limite);
+
+    // Ids de las sesiones de la película que empiezan después de (fecha, hora)
+    @Query(value = """
+            SELECT s.id FROM sesion s
+            WHERE s.pelicula_id = :idPelicula
+              AND (s.fecha, s.hora_inicio) > (:fecha, :hora)
+            """, nativeQuery = true)
+    List<Integer> findIdsFuturasByPelicula(@Param("idPelicula") int idPelicula, @Param("fecha") LocalDate fecha,
+            @Param("hora") LocalTime hora);
+
+    // Sesiones de la sala posteriores a (fecha, hora, id), en orden de inicio
+    @Query(value = """
+            SELECT s.* FROM sesion s
+            WHERE s.sala_id = :idSala
+              AND (s.fecha, s.hora_inicio, s.id) > (:fecha, :hora, :id)
+            ORDER BY s.fecha, s.hora_inicio, s.id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Sesion> findSiguientesBySala(@Param("idSala") int idSala, @Param("fecha") LocalDate fecha,
+            @Param("hora") LocalTime hora, @Param("id") int id, @Param("limite") int limite);
+
+    // Devuelve [id película, título, cartel, duración, clasificación, id sala, número de sala,
+    // id sesión, hora de inicio, formato, precio, asientos libres] de las sesiones del día, ya agrupables
+    @Query(value = """
+            SELECT p.id, p.titulo, p.cartel, p.duracion, p.clasificacion_edad, sa.id, sa.num_sala,
+                   s.id, s.hora_inicio, s.formato, s.precio_entrada,
+                   COALESCE(s.asientos_disponibles, sa.num_filas * sa.num_columnas
+                           - (SELECT COUNT(*) FROM entrada e WHERE e.sesion_id = s.id))
+            FROM sesion s
+            JOIN pelicula p ON p.id = s.pelicula_id
+            JOIN sala sa ON sa.id = s.sala_id
+            WHERE s.fecha = :fecha
+            ORDER BY p.titulo, p.id, sa.num_sala, sa.id, s.hora_inicio, s.id
+            """, nativeQuery = true)
+    List<Object[]> findProgramacionByFecha(@Param("fecha") LocalDate fecha);
+
+    // Devuelve [id, fecha, hora de inicio, duración de la película] de las sesiones de la sala desde la fecha indicada
+    @Query(value = """
+            SELECT s.id, s.fecha, s.hora_inicio, p.duracion
+            FROM sesion s
+            JOIN pelicula p ON p.id = s.pelicula_id
+            WHERE s.sala_id = :idSala AND s.fecha >= :desde
+            """, nativeQuery = true)
+    List<Object[]> findHorariosBySalaDesde(@Param("idSala") int idSala, @Param("desde") LocalDate desde);
+
+    // Devuelve [idPelicula, idSala, fecha, hora de inicio, formato, precio] de las sesiones entre las dos fechas
+    @Query(value = """
+            SELECT s.pelicula_id, s.sala_id, s.fecha, s.hora_inicio, s.formato, s.precio_entrada
+            FROM sesion s
+            WHERE s.fecha BETWEEN :desde AND :hasta
+              AND s.pelicula_id IS NOT NULL AND s.sala_id IS NOT NULL
+            ORDER BY s.fecha, s.hora_inicio
+            """, nativeQuery = true)
+    List<Object[]> findProgramacionEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    // Asigna película y sala a sesiones recién creadas sin cargar las colecciones de sesiones
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE sesion SET pelicula_id = :idPelicula, sala_id = :idSala WHERE id IN (:ids)", nativeQuery = true)
+    int asignarPeliculaYSala(@Param("ids") Collection<Integer> ids, @Param("idPelicula") int idPelicula,
+            @Param("idSala") int idSala);
+
+    // Devuelve [id, asientosDisponibles]
+    @Query("SELECT s.id, s.asientosDisponibles FROM Sesion s WHERE s.id IN :ids")
+    List<Object[]> findAsientosDisponiblesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Devuelve [id, asientos libres] calculados a partir de las entradas vendidas
+    @Query(value = """
+            SELECT s.id, sa.num_filas * sa.num_columnas - COUNT(e.id)
+            FROM sesion s
+            JOIN sala sa ON sa.id = s.sala_id
+            LEFT JOIN entrada e ON e.sesion_id = s.id
+            WHERE s.id IN (:ids)
+            GROUP BY s.id, sa.num_filas, sa.num_columnas
+            """, nativeQuery = true)
+    List<Object[]> calcularAsientosDisponiblesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Devuelve [id, version, asientos libres reales] de las sesiones cuyo contador no cuadra
+    @Query(value = """
+            SELECT s.id, s.version, sa.num_filas * sa.num_columnas - COUNT(e.id)
+            FROM sesion s
+            JOIN sala sa ON sa.id = s.sala_id
+            LEFT JOIN entrada e ON e.sesion_id = s.id
+            WHERE s.fecha >= :desde
+            GROUP BY s.id, s.version, s.asientos_disponibles, sa.num_filas, sa.num_columnas
+            HAVING s.asientos_disponibles IS NULL
+                OR s.asientos_disponibles <> sa.num_filas * sa.num_columnas - COUNT(e.id)
+            """, nativeQuery = true)
+    List<Object[]> findDescuadresAsientosDisponibles(@Param("desde") LocalDate desde);
+
+    @Modifying
+    @Query("UPDATE Sesion s SET s.asientosDisponibles = :disponibles, s.version = s.version + 1 "
+            + "WHERE s.id = :id AND s.version = :version")
+    int corregirAsientosDisponibles(@Param("id") int id, @Param("version") int version,
+            @Param("disponibles") int disponibles);
+
+    @Query(value = "SELECT sala_id FROM sesion WHERE id = :id", nativeQuery = true)
+    Integer findIdSalaById(@Param("id") int id);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM entrada WHERE sesion_id = :idSesion", nativeQuery = true)
+    int eliminarEntradasDeSesion(@Param("idSesion") int idSesion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM sesion WHERE id = :id AND version = :version", nativeQuery = true)
+    int eliminarSesion(@Param("id") int id, @Param("version") int version);
+
+    // Sesiones de días anteriores a la fecha indicada, para archivarlas por lotes
+    @Query(value = "SELECT id FROM sesion WHERE fecha < :fecha ORDER BY id LIMIT :limite", nativeQuery = true)
+    List<Integer> findIdsAnterioresA(@Param("fecha") LocalDate fecha, @Param("limite") int limite);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM entrada WHERE sesion_id IN (:ids)", nativeQuery = true)
+    int eliminarEntradasDeSesiones(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM sesion WHERE id IN (:ids)", nativeQuery = true)
+    int eliminarSesiones(@Param("ids") Collection<Integer> ids);
+
 }
@@ -1,8 +1,11 @@
 package FrenzyFilms.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import FrenzyFilms.entity.Entrada;
@@ -13,4 +16,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer>{
 	Optional<Usuario> findByUsername(String username);
 	Optional<Usuario> findByEntradasContaining(Entrada entrada);
 
+	@Query("SELECT DISTINCT u.email FROM Usuario u JOIN u.entradas e "
+			+ "WHERE e IN (SELECT se FROM Sesion s JOIN s.entradas se WHERE s.id = :idSesion)")
+	List<String> findEmailsConEntradaEnSesion(@Param("idSesion") int idSesion);
+
 }
@@ -53,8 +53,12 @@ public class SecurityConfiguration {
 
                 // PELÍCULA
                 .requestMatchers(HttpMethod.GET, "/pelicula").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/pelicula/pagina").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/pelicula/buscar").permitAll()
                 .requestMatchers(HttpMethod.GET, "/pelicula/{id}").permitAll()
                 .requestMatchers(HttpMethod.GET, "/pelicula/cartelera").permitAll()
+                .requestMatchers(HttpMethod.GET, "/pelicula/cartelera/pagina").permitAll()
+                .requestMatchers(HttpMethod.GET, "/pelicula/cartelera/generos").permitAll()
                 .requestMatchers(HttpMethod.GET, "/pelicula/sesion/{idSesion}").authenticated()
                 .requestMatchers(HttpMethod.POST, "/pelicula/importar/{idTmdb}").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/pelicula/{id}/estado/{nuevoEstado}").hasAuthority("ADMIN")
@@ -69,13 +73,24 @@ public class SecurityConfiguration {
                 .requestMatchers(HttpMethod.DELETE, "/sala/{id}").hasAuthority("ADMIN")
 
                 // SESIÓN
+                .requestMatchers(HttpMethod.GET, "/sesion/disponibilidad").permitAll()
                 .requestMatchers(HttpMethod.GET, "/sesion/{id}").permitAll()
                 .requestMatchers(HttpMethod.GET, "/sesion/sala/{idSala}").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/sesion/pelicula/{idPelicula}").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/sesion/historico/sala/{idSala}").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/sesion/historico/pelicula/{idPelicula}").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/sesion/futuras/sala/{idSala}").permitAll()
                 .requestMatchers(HttpMethod.GET, "/sesion/futuras/pelicula/{idPelicula}").permitAll()
                 .requestMatchers(HttpMethod.GET, "/sesion/entrada/{idEntrada}").authenticated()
+                .requestMatchers(HttpMethod.GET, "/sesion/{id}/detalle").permitAll()
+                .requestMatchers(HttpMethod.GET, "/sesion/{id}/asientos").permitAll()
+                .requestMatchers(HttpMethod.GET, "/sesion/{id}/asientos/eventos").permitAll()
+                .requestMatchers(HttpMethod.GET, "/sesion/{id}/asientos/mejores").permitAll()
+                .requestMatchers(HttpMethod.POST, "/sesion/{id}/asientos/mejores").hasAuthority("USER")
                 .requestMatchers(HttpMethod.POST, "/sesion/P{idPelicula}/S{idSala}").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/sesion/lote").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/sesion/copiar-semana").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/sesion/optimizar").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/sesion/{id}").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/sesion/{id}").hasAuthority("ADMIN")
 
@@ -85,8 +100,22 @@ public class SecurityConfiguration {
                 .requestMatchers(HttpMethod.GET, "/entrada/usuario/detallado").hasAuthority("USER")
                 .requestMatchers(HttpMethod.GET, "/entrada/sesion/{idSesion}").hasAuthority("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/entrada/{idSesion}").hasAuthority("USER")
+                .requestMatchers(HttpMethod.POST, "/entrada/{idSesion}/lote").hasAuthority("USER")
+                .requestMatchers(HttpMethod.POST, "/entrada/{idSesion}/retencion").hasAuthority("USER")
+                .requestMatchers(HttpMethod.DELETE, "/entrada/{idSesion}/retencion").hasAuthority("USER")
                 .requestMatchers(HttpMethod.DELETE, "/entrada/{id}").hasAuthority("USER")
 
+                // COLA DE ESPERA
+                .requestMatchers(HttpMethod.PUT, "/cola/sesion/{idSesion}").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/cola/sesion/{idSesion}").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/cola/pelicula/{idPelicula}").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/cola/pelicula/{idPelicula}").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/cola/sesion/{idSesion}/turno").hasAuthority("USER")
+                .requestMatchers(HttpMethod.GET, "/cola/turno/{turno}").hasAuthority("USER")
+
+                // PROGRAMACIÓN
+                .requestMatchers(HttpMethod.GET, "/programacion/{fecha}").permitAll()
+
                 // USUARIO
                 .requestMatchers(HttpMethod.POST, "/usuario").permitAll()
                 .requestMatchers(HttpMethod.GET, "/usuario").permitAll()
@@ -116,7 +145,9 @@ public class SecurityConfiguration {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(List.of("http://localhost:3000", "https://frenzyfilms.vercel.app"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Turno-Cola", "Idempotency-Key",
+                "If-None-Match"));
+        config.setExposedHeaders(List.of("ETag"));
         config.setAllowCredentials(true);
         source.registerCorsConfiguration("/**", config);
 
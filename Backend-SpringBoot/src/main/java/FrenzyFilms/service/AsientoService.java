@@ -0,0 +1,165 @@
+package FrenzyFilms.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.dto.BloqueAsientosDTO;
+import FrenzyFilms.dto.MapaAsientosDTO;
+import FrenzyFilms.dto.RetencionDTO;
+import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.entity.Usuario;
+import FrenzyFilms.security.JWTUtils;
+import jakarta.persistence.EntityNotFoundException;
+
+@Service
+public class AsientoService {
+
+	@Autowired
+	private SesionService sesionService;
+
+	@Autowired
+	private OcupacionService ocupacionService;
+
+	@Autowired
+	private RetencionService retencionService;
+
+	@Autowired
+	private JWTUtils JWTUtils;
+
+	public MapaAsientosDTO getMapaAsientos(int idSesion) {
+		Sesion sesion = sesionService.getSesionById(idSesion)
+				.orElseThrow(() -> new EntityNotFoundException("Sesión no encontrada."));
+
+		OcupacionSesion ocupacion = ocupacionService.getOcupacion(sesion);
+		String retenidos = retencionService.getMapaCodificado(idSesion, ocupacion.getNumFilas(),
+				ocupacion.getNumColumnas());
+
+		return new MapaAsientosDTO(idSesion, ocupacion.getNumFilas(), ocupacion.getNumColumnas(),
+				ocupacion.getMapaCodificado(), retenidos);
+	}
+
+	public BloqueAsientosDTO buscarMejoresAsientos(int idSesion, int numPersonas) {
+		Sesion sesion = getSesionVendible(idSesion, numPersonas);
+		int[] bloque = buscarBloque(sesion, numPersonas);
+
+		return new BloqueAsientosDTO(idSesion, bloque[0], asientosDelBloque(bloque, numPersonas), null);
+	}
+
+	public BloqueAsientosDTO reservarMejoresAsientos(int idSesion, int numPersonas) {
+		Sesion sesion = getSesionVendible(idSesion, numPersonas);
+		Usuario usuario = JWTUtils.userLogin();
+		int[] bloque = buscarBloque(sesion, numPersonas);
+		List<Integer> asientos = asientosDelBloque(bloque, numPersonas);
+
+		List<Integer> retenidos = new ArrayList<>();
+		LocalDateTime expiraEn = null;
+		try {
+			for (int numAsiento : asientos) {
+				RetencionDTO retencion = retencionService.retener(sesion, bloque[0], numAsiento, usuario.getId());
+				retenidos.add(numAsiento);
+				expiraEn = retencion.getExpiraEn();
+			}
+		} catch (IllegalStateException | IllegalArgumentException ex) {
+			// Otro usuario se ha adelantado o se ha alcanzado el límite: se deshace lo retenido para no dejar huecos bloqueados
+			for (int numAsiento : retenidos) {
+				retencionService.liberar(idSesion, bloque[0], numAsiento, usuario.getId());
+			}
+			throw ex;
+		}
+
+		return new BloqueAsientosDTO(idSesion, bloque[0], asientos, expiraEn);
+	}
+
+	private Sesion getSesionVendible(int idSesion, int numPersonas) {
+		if (numPersonas < 1 || numPersonas > EntradaService.MAX_ENTRADAS_POR_SESION) {
+			throw new IllegalArgumentException(
+					"El número de personas debe estar entre 1 y " + EntradaService.MAX_ENTRADAS_POR_SESION + ".");
+		}
+
+		Sesion sesion = sesionService.getSesionById(idSesion)
+				.orElseThrow(() -> new EntityNotFoundException("Sesión no encontrada."));
+
+		if (!sesionService.getInicioSesion(sesion).isAfter(LocalDateTime.now())) {
+			throw new IllegalStateException("La sesión ya ha comenzado.");
+		}
+
+		return sesion;
+	}
+
+	// Devuelve {fila, primer asiento} del mejor bloque contiguo libre
+	private int[] buscarBloque(Sesion sesion, int numPersonas) {
+		OcupacionSesion ocupacion = ocupacionService.getOcupacion(sesion);
+		int numFilas = ocupacion.getNumFilas();
+		int numColumnas = ocupacion.getNumColumnas();
+		boolean[] libre = new boolean[numColumnas + 2];
+
+		double filaCentral = (numFilas + 1) / 2.0;
+		double columnaCentral = (numColumnas + 1) / 2.0;
+
+		int[] mejor = null;
+		double mejorPuntuacion = Double.MAX_VALUE;
+		int[] mejorConHuecos = null;
+		double mejorPuntuacionConHuecos = Double.MAX_VALUE;
+
+		for (int fila = 1; fila <= numFilas; fila++) {
+			for (int asiento = 1; asiento <= numColumnas; asiento++) {
+				libre[asiento] = !ocupacion.estaOcupado(fila, asiento)
+						&& !retencionService.estaRetenido(sesion.getId(), fila, asiento);
+			}
+
+			int asiento = 1;
+			while (asiento <= numColumnas) {
+				if (!libre[asiento]) {
+					asiento++;
+					continue;
+				}
+
+				// Tramo libre [inicioTramo, finTramo]
+				int inicioTramo = asiento;
+				while (asiento <= numColumnas && libre[asiento]) {
+					asiento++;
+				}
+				int finTramo = asiento - 1;
+
+				for (int inicio = inicioTramo; inicio + numPersonas - 1 <= finTramo; inicio++) {
+					int fin = inicio + numPersonas - 1;
+					double centroBloque = (inicio + fin) / 2.0;
+					double puntuacion = Math.abs(fila - filaCentral) * numColumnas
+							+ Math.abs(centroBloque - columnaCentral);
+
+					// Un asiento suelto a cualquier lado del bloque ya no se podría vender en pareja
+					boolean dejaHueco = inicio - inicioTramo == 1 || finTramo - fin == 1;
+
+					if (!dejaHueco && puntuacion < mejorPuntuacion) {
+						mejorPuntuacion = puntuacion;
+						mejor = new int[] { fila, inicio };
+					} else if (dejaHueco && puntuacion < mejorPuntuacionConHuecos) {
+						mejorPuntuacionConHuecos = puntuacion;
+						mejorConHuecos = new int[] { fila, inicio };
+					}
+				}
+			}
+		}
+
+		if (mejor != null) {
+			return mejor;
+		}
+		if (mejorConHuecos != null) {
+			return mejorConHuecos;
+		}
+
+		throw new IllegalStateException("No hay " + numPersonas + " asientos contiguos disponibles.");
+	}
+
+	private List<Integer> asientosDelBloque(int[] bloque, int numPersonas) {
+		List<Integer> asientos = new ArrayList<>(numPersonas);
+		for (int i = 0; i < numPersonas; i++) {
+			asientos.add(bloque[1] + i);
+		}
+		return asientos;
+	}
+}
@@ -0,0 +1,36 @@
+package FrenzyFilms.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Cerrojos por sesión repartidos en franjas (lock striping).
+ *
+ * Las compras de una misma sesión se serializan dentro de la JVM, mientras que
+ * las de sesiones distintas solo compiten si caen en la misma franja.
+ */
+@Component
+public class BloqueoSesiones {
+
+	private static final int NUM_FRANJAS = 256;
+
+	private final ReentrantLock[] franjas = new ReentrantLock[NUM_FRANJAS];
+
+	public BloqueoSesiones() {
+		for (int i = 0; i < NUM_FRANJAS; i++) {
+			franjas[i] = new ReentrantLock();
+		}
+	}
+
+	public <T> T ejecutar(int idSesion, Supplier<T> accion) {
+		ReentrantLock cerrojo = franjas[Math.floorMod(idSesion, NUM_FRANJAS)];
+		cerrojo.lock();
+		try {
+			return accion.get();
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package FrenzyFilms.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FrenzyFilms.entity.BloqueoTarea;
+import FrenzyFilms.repository.BloqueoTareaRepository;
+
+/**
+ * Exclusión de tareas programadas entre instancias mediante la tabla bloqueo_tarea.
+ *
+ * Antes de ejecutar una tarea se reserva su fila hasta un tiempo máximo; si
+ * otra instancia la tiene reservada, la tarea se omite en esta pasada. Al
+ * terminar se libera, y si la instancia cae a mitad, el cerrojo caduca solo.
+ */
+@Service
+public class BloqueoTareasService {
+
+	@Autowired
+	private BloqueoTareaRepository bloqueoTareaRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final String instancia = UUID.randomUUID().toString();
+
+	// Devuelve false si otra instancia está ejecutando la tarea
+	public boolean ejecutarSiLibre(String nombre, Duration maximo, Runnable tarea) {
+		if (!adquirir(nombre, maximo)) {
+			return false;
+		}
+
+		try {
+			tarea.run();
+		} finally {
+			transactionTemplate.executeWithoutResult(
+					estado -> bloqueoTareaRepository.liberar(nombre, instancia, LocalDateTime.now()));
+		}
+		return true;
+	}
+
+	private boolean adquirir(String nombre, Duration maximo) {
+		LocalDateTime ahora = LocalDateTime.now();
+		LocalDateTime hasta = ahora.plus(maximo);
+
+		try {
+			return transactionTemplate.execute(estado -> {
+				if (bloqueoTareaRepository.adquirir(nombre, instancia, ahora, hasta) == 1) {
+					return true;
+				}
+				if (bloqueoTareaRepository.existsById(nombre)) {
+					return false;
+				}
+
+				// Primera ejecución de la tarea: si otra instancia crea la fila a la vez, falla la clave primaria
+				BloqueoTarea bloqueo = new BloqueoTarea();
+				bloqueo.setNombre(nombre);
+				bloqueo.setBloqueadoHasta(hasta);
+				bloqueo.setBloqueadoPor(instancia);
+				bloqueoTareaRepository.saveAndFlush(bloqueo);
+				return true;
+			});
+		} catch (DataIntegrityViolationException ex) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package FrenzyFilms.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import FrenzyFilms.dto.PeliculaResumenDTO;
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.repository.PeliculaRepository;
+
+/**
+ * Búsqueda de texto sobre el catálogo propio con un índice invertido en memoria.
+ *
+ * Cada término normalizado (minúsculas y sin tildes) apunta a las películas que
+ * lo contienen con el peso del campo en el que aparece: título, director,
+ * reparto o género. Los términos se guardan ordenados, así que una búsqueda por
+ * prefijo es un recorrido de un rango del mapa. Todas las palabras
+ * de la consulta deben aparecer en la película.
+ *
+ * El índice se construye al arrancar y se actualiza película a película al
+ * importar, eliminar o cambiar de estado, también cuando el cambio se hace en
+ * otra instancia (ver SincronizacionCatalogoService).
+ */
+@Service
+public class BusquedaPeliculasService {
+
+	private static final int MAX_RESULTADOS = 50;
+
+	private static final float PESO_TITULO = 5f;
+	private static final float PESO_DIRECTOR = 3f;
+	private static final float PESO_REPARTO = 2f;
+	private static final float PESO_GENERO = 1f;
+	// Una palabra completa puntúa más que un término que solo empieza por ella
+	private static final float BONUS_EXACTO = 1.5f;
+
+	private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	@Autowired
+	private PeliculaRepository peliculaRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// término -> (idPelicula -> peso)
+	private final NavigableMap<String, Map<Integer, Float>> terminos = new ConcurrentSkipListMap<>();
+
+	// idPelicula -> términos indexados, para poder retirarlos
+	private final Map<Integer, Map<String, Float>> terminosPorPelicula = new ConcurrentHashMap<>();
+
+	private final Map<Integer, PeliculaResumenDTO> resumenes = new ConcurrentHashMap<>();
+
+	// Se lee con el cerrojo tomado, para que ninguna actualización por película quede pisada por la carga
+	synchronized void construirIndice() {
+		terminos.clear();
+		terminosPorPelicula.clear();
+		resumenes.clear();
+		for (Pelicula pelicula : peliculaRepository.findAll()) {
+			indexarAhora(pelicula);
+		}
+	}
+
+	public List<PeliculaResumenDTO> buscar(String consulta, int limite) {
+		if (limite < 1 || limite > MAX_RESULTADOS) {
+			throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_RESULTADOS + ".");
+		}
+
+		List<String> palabras = tokenizar(consulta);
+		if (palabras.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		Map<Integer, Float> puntuaciones = null;
+
+		for (String palabra : palabras) {
+			Map<Integer, Float> coincidencias = new HashMap<>();
+
+			for (Map.Entry<String, Map<Integer, Float>> termino : terminos
+					.subMap(palabra, true, palabra + Character.MAX_VALUE, false).entrySet()) {
+				float factor = termino.getKey().equals(palabra) ? BONUS_EXACTO : 1f;
+				termino.getValue().forEach((id, peso) -> coincidencias.merge(id, peso * factor, Math::max));
+			}
+
+			if (puntuaciones == null) {
+				puntuaciones = coincidencias;
+			} else {
+				Map<Integer, Float> anteriores = puntuaciones;
+				puntuaciones = new HashMap<>();
+				for (Map.Entry<Integer, Float> coincidencia : coincidencias.entrySet()) {
+					Float previa = anteriores.get(coincidencia.getKey());
+					if (previa != null) {
+						puntuaciones.put(coincidencia.getKey(), previa + coincidencia.getValue());
+					}
+				}
+			}
+
+			if (puntuaciones.isEmpty()) {
+				return new ArrayList<>();
+			}
+		}
+
+		Map<Integer, Float> finales = puntuaciones;
+		return finales.keySet().stream()
+				.map(resumenes::get)
+				.filter(resumen -> resumen != null && resumen.getEstado() != Estado.DESCATALOGADA)
+				.sorted(Comparator.comparing((PeliculaResumenDTO r) -> finales.get(r.getIdPelicula())).reversed()
+						.thenComparing(PeliculaResumenDTO::getTitulo))
+				.limit(limite)
+				.toList();
+	}
+
+	// Se aplica al confirmar la transacción, para no indexar cambios que luego se deshacen
+	public void indexar(Pelicula pelicula) {
+		TransaccionUtils.despuesDeConfirmar(() -> indexarAhora(pelicula));
+	}
+
+	public void eliminar(int idPelicula) {
+		TransaccionUtils.despuesDeConfirmar(() -> eliminarAhora(idPelicula));
+	}
+
+	private synchronized void indexarAhora(Pelicula pelicula) {
+		eliminarAhora(pelicula.getId());
+
+		Map<String, Float> pesos = new HashMap<>();
+		añadirCampo(pesos, pelicula.getTitulo(), PESO_TITULO);
+		añadirCampo(pesos, pelicula.getDirector(), PESO_DIRECTOR);
+		for (String actor : getNombresActores(pelicula.getActores())) {
+			añadirCampo(pesos, actor, PESO_REPARTO);
+		}
+		añadirCampo(pesos, pelicula.getGenero(), PESO_GENERO);
+
+		pesos.forEach((termino, peso) -> terminos.computeIfAbsent(termino, k -> new ConcurrentHashMap<>())
+				.put(pelicula.getId(), peso));
+		terminosPorPelicula.put(pelicula.getId(), pesos);
+		resumenes.put(pelicula.getId(), PeliculaService.toResumen(pelicula));
+	}
+
+	private synchronized void eliminarAhora(int idPelicula) {
+		resumenes.remove(idPelicula);
+		Map<String, Float> previos = terminosPorPelicula.remove(idPelicula);
+		if (previos == null) {
+			return;
+		}
+
+		for (String termino : previos.keySet()) {
+			terminos.computeIfPresent(termino, (k, peliculas) -> {
+				peliculas.remove(idPelicula);
+				return peliculas.isEmpty() ? null : peliculas;
+			});
+		}
+	}
+
+	private void añadirCampo(Map<String, Float> pesos, String texto, float peso) {
+		for (String termino : tokenizar(texto)) {
+			pesos.merge(termino, peso, Math::max);
+		}
+	}
+
+	// Los actores se guardan como JSON: [{"nombre": ..., "personaje": ..., "foto": ...}]
+	private List<String> getNombresActores(String actores) {
+		List<String> nombres = new ArrayList<>();
+		if (actores == null || actores.isBlank()) {
+			return nombres;
+		}
+
+		try {
+			for (Map<String, String> actor : objectMapper.readValue(actores,
+					new TypeReference<List<Map<String, String>>>() {
+					})) {
+				if (actor.get("nombre") != null) {
+					nombres.add(actor.get("nombre"));
+				}
+			}
+		} catch (Exception ex) {
+			// Un reparto mal formado no impide indexar el resto de la película
+		}
+		return nombres;
+	}
+
+	static List<String> tokenizar(String texto) {
+		List<String> palabras = new ArrayList<>();
+		if (texto == null) {
+			return palabras;
+		}
+
+		for (String palabra : SEPARADORES.split(normalizar(texto))) {
+			if (!palabra.isEmpty()) {
+				palabras.add(palabra);
+			}
+		}
+		return palabras;
+	}
+
+	// Minúsculas y sin tildes, para comparar textos introducidos por el usuario
+	static String normalizar(String texto) {
+		return DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+				.toLowerCase(Locale.ROOT);
+	}
+}
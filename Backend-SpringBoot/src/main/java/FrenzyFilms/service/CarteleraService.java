@@ -0,0 +1,167 @@
+package FrenzyFilms.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.annotation.PostConstruct;
+
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.repository.PeliculaRepository;
+
+/**
+ * Caché de la cartelera ya serializada.
+ *
+ * La respuesta de /pelicula/cartelera se genera una vez como JSON junto con un
+ * ETag fuerte (SHA-256 del contenido), y se reutiliza hasta que cambian las
+ * películas o sus sesiones. De las sesiones solo se incluyen los datos que
+ * fija el administrador: ni las entradas ni el contador de asientos libres,
+ * para que las compras no invaliden la caché.
+ * Cada invalidación aumenta una generación: una carga que empezó antes de un
+ * cambio no llega a guardarse en la caché.
+ *
+ * La cartelera filtrada por género se guarda aparte, una entrada por género, y
+ * se invalida junto con la completa.
+ *
+ * Invalidar solo afecta a esta instancia. Para que las demás vean los cambios
+ * de sesiones, cada copia caduca a los frenzyfilms.cartelera.max-edad-segundos;
+ * si no ha cambiado nada, se vuelve a generar con el mismo ETag.
+ */
+@Service
+public class CarteleraService {
+
+	@Autowired
+	private PeliculaRepository peliculaRepository;
+
+	@Autowired
+	private GeneroService generoService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${frenzyfilms.cartelera.max-edad-segundos:60}")
+	private long maxEdadSegundos;
+
+	// Clave de la cartelera sin filtrar; el resto de claves son nombres de género
+	private static final String TODOS = "";
+
+	private static final byte[] VACIA = "[]".getBytes(StandardCharsets.UTF_8);
+
+	private ObjectWriter escritor;
+
+	private final AtomicLong generacion = new AtomicLong();
+	private final Map<String, CarteleraSerializada> carteleras = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void iniciar() {
+		escritor = objectMapper.copy().addMixIn(Sesion.class, SesionEnCartelera.class).writer();
+	}
+
+	public CarteleraSerializada getCartelera() {
+		return getCartelera(null);
+	}
+
+	public CarteleraSerializada getCartelera(String genero) {
+		String clave = TODOS;
+		if (genero != null && !genero.isBlank()) {
+			Optional<String> nombre = generoService.buscarNombre(genero);
+			if (nombre.isEmpty()) {
+				return new CarteleraSerializada(VACIA, calcularEtag(VACIA), 0);
+			}
+			clave = nombre.get();
+		}
+
+		CarteleraSerializada actual = carteleras.get(clave);
+		if (actual != null && System.currentTimeMillis() < actual.caducaEn) {
+			return actual;
+		}
+
+		long inicio = generacion.get();
+		CarteleraSerializada nueva = cargarCartelera(clave);
+
+		synchronized (this) {
+			if (generacion.get() == inicio) {
+				carteleras.put(clave, nueva);
+			}
+		}
+		return nueva;
+	}
+
+	public void invalidar() {
+		TransaccionUtils.despuesDeConfirmar(this::vaciar);
+	}
+
+	private synchronized void vaciar() {
+		generacion.incrementAndGet();
+		carteleras.clear();
+	}
+
+	// Se serializa dentro de la transacción para poder recorrer las sesiones de cada película
+	private CarteleraSerializada cargarCartelera(String genero) {
+		byte[] json = transactionTemplate.execute(estado -> {
+			try {
+				return escritor.writeValueAsBytes(TODOS.equals(genero)
+						? peliculaRepository.findByEstadoNot(Estado.DESCATALOGADA)
+						: peliculaRepository.findDistinctByGenerosNombreAndEstadoNot(genero, Estado.DESCATALOGADA));
+			} catch (JsonProcessingException ex) {
+				throw new IllegalStateException("Error al serializar la cartelera.", ex);
+			}
+		});
+
+		return new CarteleraSerializada(json, calcularEtag(json),
+				System.currentTimeMillis() + maxEdadSegundos * 1000);
+	}
+
+	private static String calcularEtag(byte[] json) {
+		try {
+			byte[] resumen = MessageDigest.getInstance("SHA-256").digest(json);
+			return "\"" + HexFormat.of().formatHex(resumen) + "\"";
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	// Campos de Sesion que cambian con cada compra o cancelación
+	@JsonIgnoreProperties({ "entradas", "asientosDisponibles", "version" })
+	private abstract static class SesionEnCartelera {
+	}
+
+	public static class CarteleraSerializada {
+		private final byte[] json;
+		private final String etag;
+		private final long caducaEn;
+
+		private CarteleraSerializada(byte[] json, String etag, long caducaEn) {
+			this.json = json;
+			this.etag = etag;
+			this.caducaEn = caducaEn;
+		}
+
+		public byte[] getJson() {
+			return json;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+	}
+}
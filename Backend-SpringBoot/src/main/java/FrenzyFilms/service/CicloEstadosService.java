@@ -0,0 +1,116 @@
+package FrenzyFilms.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.repository.PeliculaRepository;
+
+/**
+ * Cambios automáticos de estado de las películas.
+ *
+ * En cada pasada se aplican en orden tres reglas:
+ * PROXIMAMENTE pasa a ESTRENO cuando ya ha llegado su fecha de estreno y tiene
+ * alguna sesión futura; ESTRENO pasa a DISPONIBLE al cumplirse los días de
+ * estreno; y DISPONIBLE pasa a DESCATALOGADA cuando lleva un tiempo sin
+ * sesiones, contando también las archivadas. Cada lote se cambia con una sola
+ * sentencia y en su propia transacción. Con varias instancias, un cerrojo en
+ * base de datos hace que solo una ejecute la pasada.
+ */
+@Service
+public class CicloEstadosService {
+
+	private static final String TAREA = "ciclo-estados";
+
+	@Autowired
+	private PeliculaRepository peliculaRepository;
+
+	@Autowired
+	private CarteleraService carteleraService;
+
+	@Autowired
+	private BusquedaPeliculasService busquedaPeliculasService;
+
+	@Autowired
+	private GeneroService generoService;
+
+	@Autowired
+	private SincronizacionCatalogoService sincronizacionCatalogoService;
+
+	@Autowired
+	private BloqueoTareasService bloqueoTareasService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${frenzyfilms.ciclo-estados.dias-estreno:14}")
+	private int diasEstreno;
+
+	@Value("${frenzyfilms.ciclo-estados.dias-sin-sesiones:30}")
+	private int diasSinSesiones;
+
+	@Value("${frenzyfilms.ciclo-estados.tamano-lote:200}")
+	private int tamañoLote;
+
+	@Value("${frenzyfilms.ciclo-estados.bloqueo-maximo-minutos:10}")
+	private int bloqueoMaximoMinutos;
+
+	@Scheduled(cron = "${frenzyfilms.ciclo-estados.cron:0 5 * * * *}")
+	public void actualizarEstados() {
+		bloqueoTareasService.ejecutarSiLibre(TAREA, Duration.ofMinutes(bloqueoMaximoMinutos), () -> {
+			LocalDateTime ahora = LocalDateTime.now().withNano(0);
+			LocalDate hoy = ahora.toLocalDate();
+
+			aplicarRegla(Estado.PROXIMAMENTE, Estado.ESTRENO, limite -> peliculaRepository
+					.findIdsEstrenadasConSesionesFuturas(Estado.PROXIMAMENTE, hoy, ahora.toLocalTime(), limite));
+			aplicarRegla(Estado.ESTRENO, Estado.DISPONIBLE, limite -> peliculaRepository
+					.findIdsEstrenadasAntesDe(Estado.ESTRENO, hoy.minusDays(diasEstreno), limite));
+			aplicarRegla(Estado.DISPONIBLE, Estado.DESCATALOGADA, limite -> peliculaRepository
+					.findIdsSinSesionesDesde(Estado.DISPONIBLE, hoy.minusDays(diasSinSesiones), limite));
+		});
+	}
+
+	private void aplicarRegla(Estado anterior, Estado nuevo, Function<Limit, List<Integer>> candidatas) {
+		while (true) {
+			List<Integer> ids = transactionTemplate.execute(estado -> {
+				List<Integer> lote = candidatas.apply(Limit.of(tamañoLote));
+				if (!lote.isEmpty() && peliculaRepository.cambiarEstado(lote, anterior, nuevo) > 0) {
+					actualizarIndices(lote, nuevo);
+				}
+				return lote;
+			});
+
+			if (ids.size() < tamañoLote) {
+				return;
+			}
+		}
+	}
+
+	// Los índices en memoria se corrigen al confirmar, solo con las películas que han cambiado de verdad
+	private void actualizarIndices(List<Integer> ids, Estado nuevo) {
+		List<Integer> cambiadas = new ArrayList<>();
+		for (Pelicula pelicula : peliculaRepository.findAllById(ids)) {
+			if (pelicula.getEstado() == nuevo) {
+				busquedaPeliculasService.indexar(pelicula);
+				generoService.actualizarPelicula(pelicula);
+				cambiadas.add(pelicula.getId());
+			}
+		}
+
+		sincronizacionCatalogoService.publicar(cambiadas);
+
+		carteleraService.invalidar();
+	}
+}
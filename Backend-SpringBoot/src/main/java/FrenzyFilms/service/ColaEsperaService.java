@@ -0,0 +1,334 @@
+package FrenzyFilms.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.dto.TurnoColaDTO;
+import FrenzyFilms.entity.Admin;
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.entity.Persona;
+import FrenzyFilms.repository.SesionRepository;
+import FrenzyFilms.security.JWTUtils;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Sala de espera virtual para las sesiones con mucha demanda.
+ *
+ * Cuando una sesión tiene la cola activada, solo pueden comprar los usuarios
+ * con un turno admitido. Los turnos se admiten por orden de llegada al ritmo
+ * configurado, y los que dejan de consultar su posición se descartan para no
+ * gastar plazas de admisión. Cada turno admitido sirve para una sola compra.
+ */
+@Service
+public class ColaEsperaService {
+
+	public static final String CABECERA_TURNO = "X-Turno-Cola";
+
+	@Value("${frenzyfilms.cola.ventana-compra-segundos:600}")
+	private long ventanaCompraSegundos;
+
+	@Value("${frenzyfilms.cola.abandono-segundos:60}")
+	private long abandonoSegundos;
+
+	// Ritmo por defecto para las sesiones de películas en estreno; 0 la deja desactivada
+	@Value("${frenzyfilms.cola.estreno-por-minuto:0}")
+	private int estrenoPorMinuto;
+
+	@Autowired
+	private PeliculaService peliculaService;
+
+	@Autowired
+	private SesionRepository sesionRepository;
+
+	@Autowired
+	private JWTUtils JWTUtils;
+
+	// idSesion -> cola
+	private final Map<Integer, Cola> colas = new ConcurrentHashMap<>();
+
+	// idPelicula -> admisiones por minuto, para las sesiones que se creen más adelante
+	private final Map<Integer, Integer> colasPorPelicula = new ConcurrentHashMap<>();
+
+	// turno -> datos del turno
+	private final Map<String, Turno> turnos = new ConcurrentHashMap<>();
+
+	// username:idSesion -> turno, para no dar dos turnos al mismo usuario
+	private final Map<String, String> turnosPorUsuario = new ConcurrentHashMap<>();
+
+	public void activarSesion(int idSesion, int porMinuto) {
+		comprobarAdmin();
+		validarRitmo(porMinuto);
+		activar(idSesion, porMinuto);
+	}
+
+	public void desactivarSesion(int idSesion) {
+		comprobarAdmin();
+		eliminarCola(idSesion);
+	}
+
+	public void activarPelicula(int idPelicula, int porMinuto) {
+		comprobarAdmin();
+		validarRitmo(porMinuto);
+
+		comprobarPelicula(idPelicula);
+
+		colasPorPelicula.put(idPelicula, porMinuto);
+		for (int idSesion : getIdsSesionesFuturas(idPelicula)) {
+			activar(idSesion, porMinuto);
+		}
+	}
+
+	public void desactivarPelicula(int idPelicula) {
+		comprobarAdmin();
+
+		comprobarPelicula(idPelicula);
+
+		colasPorPelicula.remove(idPelicula);
+		for (int idSesion : getIdsSesionesFuturas(idPelicula)) {
+			eliminarCola(idSesion);
+		}
+	}
+
+	// Las sesiones nuevas heredan la cola de su película o, si está en estreno, la configurada por defecto
+	public void sesionCreada(Pelicula pelicula, int idSesion) {
+		Integer porMinuto = colasPorPelicula.get(pelicula.getId());
+		if (porMinuto == null && pelicula.getEstado() == Estado.ESTRENO && estrenoPorMinuto > 0) {
+			porMinuto = estrenoPorMinuto;
+		}
+
+		if (porMinuto != null) {
+			int ritmo = porMinuto;
+			TransaccionUtils.despuesDeConfirmar(() -> activar(idSesion, ritmo));
+		}
+	}
+
+	public void eliminarSesion(int idSesion) {
+		TransaccionUtils.despuesDeConfirmar(() -> eliminarCola(idSesion));
+	}
+
+	public TurnoColaDTO pedirTurno(int idSesion) {
+		Cola cola = colas.get(idSesion);
+		if (cola == null) {
+			return new TurnoColaDTO(null, idSesion, 0, true, 0L, null);
+		}
+
+		String username = getUsername();
+		long ahora = System.currentTimeMillis();
+
+		String token = turnosPorUsuario.compute(username + ":" + idSesion, (k, actual) -> {
+			Turno existente = actual != null ? turnos.get(actual) : null;
+			if (existente != null && !existente.haCaducado(ahora)) {
+				existente.ultimaConsulta = ahora;
+				return actual;
+			}
+
+			Turno nuevo = new Turno(UUID.randomUUID().toString(), idSesion, username,
+					cola.emitidos.incrementAndGet(), ahora);
+			turnos.put(nuevo.token, nuevo);
+			cola.espera.add(nuevo);
+			return nuevo.token;
+		});
+
+		return toDTO(turnos.get(token), cola);
+	}
+
+	public TurnoColaDTO consultarTurno(String token) {
+		Turno turno = turnos.get(token);
+		if (turno == null || !turno.username.equals(getUsername())) {
+			throw new EntityNotFoundException("Turno no encontrado o caducado.");
+		}
+
+		turno.ultimaConsulta = System.currentTimeMillis();
+		return toDTO(turno, colas.get(turno.idSesion));
+	}
+
+	// El turno se comprueba sin tocar la base de datos y queda ocupado mientras dura la compra.
+	// Si la compra sale bien se consume; si falla, se puede volver a intentar con el mismo turno.
+	public <T> T comprarConTurno(int idSesion, String token, Supplier<T> compra) {
+		if (!colas.containsKey(idSesion)) {
+			return compra.get();
+		}
+
+		Turno turno = token != null ? turnos.get(token) : null;
+		long ahora = System.currentTimeMillis();
+
+		if (turno == null || turno.idSesion != idSesion || !turno.username.equals(getUsername())
+				|| turno.haCaducado(ahora)) {
+			throw new IllegalStateException("Esta sesión tiene cola de espera. Solicita un turno para comprar.");
+		}
+		if (turno.admitidoHasta == 0) {
+			throw new IllegalStateException("Todavía no es tu turno. Espera a ser admitido para comprar.");
+		}
+		if (!turno.comprando.compareAndSet(false, true)) {
+			throw new IllegalStateException("Ya hay una compra en curso con este turno.");
+		}
+
+		boolean comprado = false;
+		try {
+			T resultado = compra.get();
+			comprado = true;
+			return resultado;
+		} finally {
+			if (comprado) {
+				eliminarTurno(turno);
+			} else {
+				turno.comprando.set(false);
+			}
+		}
+	}
+
+	@Scheduled(fixedRate = 1000)
+	public void admitirTurnos() {
+		long ahora = System.currentTimeMillis();
+
+		for (Cola cola : colas.values()) {
+			double porSegundo = cola.porMinuto / 60.0;
+			// Sin nadie esperando no se acumula crédito, para no dejar pasar una avalancha después
+			cola.credito = cola.espera.isEmpty() ? Math.min(cola.credito + porSegundo, Math.max(porSegundo, 1))
+					: cola.credito + porSegundo;
+
+			while (cola.credito >= 1) {
+				Turno turno = cola.espera.poll();
+				if (turno == null) {
+					break;
+				}
+
+				if (ahora - turno.ultimaConsulta > abandonoSegundos * 1000) {
+					eliminarTurno(turno);
+					continue;
+				}
+
+				turno.admitidoHasta = ahora + ventanaCompraSegundos * 1000;
+				cola.ultimoAdmitido = turno.numero;
+				cola.credito -= 1;
+			}
+		}
+
+		turnos.values().removeIf(turno -> {
+			if (turno.haCaducado(ahora)) {
+				turnosPorUsuario.remove(turno.username + ":" + turno.idSesion, turno.token);
+				return true;
+			}
+			return false;
+		});
+	}
+
+	private void activar(int idSesion, int porMinuto) {
+		colas.compute(idSesion, (k, actual) -> {
+			if (actual == null) {
+				return new Cola(porMinuto);
+			}
+			actual.porMinuto = porMinuto;
+			return actual;
+		});
+	}
+
+	// Al desactivar la cola los turnos pendientes dejan de hacer falta
+	private void eliminarCola(int idSesion) {
+		Cola cola = colas.remove(idSesion);
+		if (cola != null) {
+			cola.espera.forEach(this::eliminarTurno);
+		}
+	}
+
+	private void eliminarTurno(Turno turno) {
+		turnos.remove(turno.token);
+		turnosPorUsuario.remove(turno.username + ":" + turno.idSesion, turno.token);
+	}
+
+	private TurnoColaDTO toDTO(Turno turno, Cola cola) {
+		if (turno.admitidoHasta > 0 || cola == null) {
+			LocalDateTime validoHasta = turno.admitidoHasta > 0
+					? LocalDateTime.ofInstant(Instant.ofEpochMilli(turno.admitidoHasta), ZoneId.systemDefault())
+					: null;
+			return new TurnoColaDTO(turno.token, turno.idSesion, 0, true, 0L, validoHasta);
+		}
+
+		long posicion = Math.max(turno.numero - cola.ultimoAdmitido, 1);
+		long espera = (long) Math.ceil(posicion * 60.0 / cola.porMinuto);
+		return new TurnoColaDTO(turno.token, turno.idSesion, posicion, false, espera, null);
+	}
+
+	private void comprobarPelicula(int idPelicula) {
+		if (peliculaService.getPeliculaById(idPelicula).isEmpty()) {
+			throw new EntityNotFoundException("Película no encontrada.");
+		}
+	}
+
+	private List<Integer> getIdsSesionesFuturas(int idPelicula) {
+		LocalDateTime ahora = LocalDateTime.now();
+		return sesionRepository.findIdsFuturasByPelicula(idPelicula, ahora.toLocalDate(), ahora.toLocalTime());
+	}
+
+	private void comprobarAdmin() {
+		Persona userLogin = JWTUtils.userLogin();
+
+		if (!(userLogin instanceof Admin)) {
+			throw new AccessDeniedException("Solo los administradores pueden gestionar las colas de espera.");
+		}
+	}
+
+	private static void validarRitmo(int porMinuto) {
+		if (porMinuto < 1) {
+			throw new IllegalArgumentException("El ritmo de admisión debe ser de al menos 1 usuario por minuto.");
+		}
+	}
+
+	private static String getUsername() {
+		return SecurityContextHolder.getContext().getAuthentication().getName();
+	}
+
+	private static class Cola {
+		private volatile int porMinuto;
+		private final Queue<Turno> espera = new ConcurrentLinkedQueue<>();
+		private final AtomicLong emitidos = new AtomicLong();
+		private volatile long ultimoAdmitido;
+		// Solo lo modifica la tarea programada
+		private double credito;
+
+		private Cola(int porMinuto) {
+			this.porMinuto = porMinuto;
+		}
+	}
+
+	private class Turno {
+		private final String token;
+		private final int idSesion;
+		private final String username;
+		private final long numero;
+		private volatile long ultimaConsulta;
+		// 0 mientras espera; después, fin de la ventana de compra
+		private volatile long admitidoHasta;
+		private final AtomicBoolean comprando = new AtomicBoolean();
+
+		private Turno(String token, int idSesion, String username, long numero, long ahora) {
+			this.token = token;
+			this.idSesion = idSesion;
+			this.username = username;
+			this.numero = numero;
+			this.ultimaConsulta = ahora;
+		}
+
+		private boolean haCaducado(long ahora) {
+			return admitidoHasta > 0 ? admitidoHasta <= ahora : ahora - ultimaConsulta > abandonoSegundos * 1000;
+		}
+	}
+}
@@ -1,8 +1,13 @@
 package FrenzyFilms.service;
 
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import FrenzyFilms.entity.Sesion;
@@ -10,6 +15,8 @@ import FrenzyFilms.entity.Sesion;
 @Service
 public class CorreoService {
 
+    private static final Logger log = LoggerFactory.getLogger(CorreoService.class);
+
     @Autowired
     private JavaMailSender mailSender;
 
@@ -38,4 +45,17 @@ public class CorreoService {
         }
     }
 
+    // Se ejecuta en segundo plano: un fallo con un destinatario no impide avisar a los demás
+    @Async
+    public void enviarAvisosCancelacion(List<String> destinatarios, Sesion sesion) {
+        for (String destinatario : destinatarios) {
+            try {
+                enviarAvisoCancelacion(destinatario, sesion);
+            } catch (RuntimeException ex) {
+                log.warn("No se ha podido avisar a {} de la cancelación de la sesión {}: {}", destinatario,
+                        sesion.getId(), ex.getMessage());
+            }
+        }
+    }
+
 }
@@ -0,0 +1,95 @@
+package FrenzyFilms.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.transaction.Transactional;
+import FrenzyFilms.dto.DisponibilidadSesionDTO;
+import FrenzyFilms.repository.SesionRepository;
+
+@Service
+public class DisponibilidadService {
+
+	private static final int MAX_SESIONES_POR_CONSULTA = 500;
+
+	@Autowired
+	private SesionRepository sesionRepository;
+
+	@Autowired
+	private RetencionService retencionService;
+
+	@Autowired
+	private ProgramacionService programacionService;
+
+	public List<DisponibilidadSesionDTO> getDisponibilidad(List<Integer> ids) {
+		Set<Integer> unicos = new LinkedHashSet<>(ids);
+
+		if (unicos.size() > MAX_SESIONES_POR_CONSULTA) {
+			throw new IllegalArgumentException(
+					"No se pueden consultar más de " + MAX_SESIONES_POR_CONSULTA + " sesiones a la vez.");
+		}
+		if (unicos.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		Map<Integer, Integer> libres = new HashMap<>();
+		List<Integer> sinContador = new ArrayList<>();
+
+		for (Object[] fila : sesionRepository.findAsientosDisponiblesByIdIn(unicos)) {
+			if (fila[1] != null) {
+				libres.put((Integer) fila[0], ((Number) fila[1]).intValue());
+			} else {
+				sinContador.add((Integer) fila[0]);
+			}
+		}
+
+		if (!sinContador.isEmpty()) {
+			for (Object[] fila : sesionRepository.calcularAsientosDisponiblesByIdIn(sinContador)) {
+				libres.put(((Number) fila[0]).intValue(), ((Number) fila[1]).intValue());
+			}
+		}
+
+		List<DisponibilidadSesionDTO> resultado = new ArrayList<>();
+		for (Integer id : unicos) {
+			Integer disponibles = libres.get(id);
+			if (disponibles != null) {
+				disponibles = Math.max(disponibles - retencionService.getNumRetenidos(id), 0);
+				resultado.add(new DisponibilidadSesionDTO(id, disponibles));
+			}
+		}
+
+		return resultado;
+	}
+
+	// Comprueba el contador de asientos disponibles de las sesiones vigentes contra las entradas reales
+	@Scheduled(cron = "${frenzyfilms.disponibilidad.reconciliacion-cron:0 */15 * * * *}")
+	@Transactional
+	public int reconciliarAsientosDisponibles() {
+		List<Object[]> descuadres = sesionRepository.findDescuadresAsientosDisponibles(LocalDate.now());
+		int corregidas = 0;
+
+		for (Object[] fila : descuadres) {
+			int id = ((Number) fila[0]).intValue();
+			int version = ((Number) fila[1]).intValue();
+			int disponibles = Math.max(((Number) fila[2]).intValue(), 0);
+
+			// Si la sesión ha cambiado desde la consulta se deja para la siguiente pasada
+			corregidas += sesionRepository.corregirAsientosDisponibles(id, version, disponibles);
+		}
+
+		if (corregidas > 0) {
+			programacionService.invalidarTodo();
+		}
+
+		return corregidas;
+	}
+}
@@ -3,18 +3,24 @@ package FrenzyFilms.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import FrenzyFilms.dto.EntradaDetalladaPlanoDTO;
+import FrenzyFilms.dto.RetencionDTO;
 import FrenzyFilms.entity.Admin;
 import FrenzyFilms.entity.Entrada;
 import FrenzyFilms.entity.Pelicula;
@@ -28,6 +34,10 @@ import FrenzyFilms.security.JWTUtils;
 @Service
 public class EntradaService {
 
+	private static final int MAX_REINTENTOS = 3;
+
+	static final int MAX_ENTRADAS_POR_SESION = 10;
+
 	@Autowired
 	private EntradaRepository entradaRepository;
 
@@ -43,6 +53,21 @@ public class EntradaService {
 	@Autowired
 	private PeliculaService peliculaService;
 
+	@Autowired
+	private OcupacionService ocupacionService;
+
+	@Autowired
+	private RetencionService retencionService;
+
+	@Autowired
+	private ProgramacionService programacionService;
+
+	@Autowired
+	private BloqueoSesiones bloqueoSesiones;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
 	@Autowired
 	private JWTUtils JWTUtils;
 
@@ -127,8 +152,28 @@ public class EntradaService {
 		return entradaRepository.save(entrada);
 	}
 
-	@Transactional
 	public Entrada createEntrada(Entrada entrada, int idSesion) {
+		return createEntradas(List.of(entrada), idSesion).get(0);
+	}
+
+	// Las compras de una misma sesión se serializan y se reintentan si hay conflicto de versión
+	public List<Entrada> createEntradas(List<Entrada> entradas, int idSesion) {
+		if (entradas == null || entradas.isEmpty()) {
+			throw new IllegalArgumentException("Debes seleccionar al menos un asiento.");
+		}
+
+		return bloqueoSesiones.ejecutar(idSesion, () -> {
+			try {
+				return ejecutarConReintentos(() -> comprarEntradas(entradas, idSesion));
+			} catch (DataIntegrityViolationException ex) {
+				// Otra instancia vendió el asiento: el mapa de ocupación en memoria está desfasado
+				ocupacionService.invalidar(idSesion);
+				throw ex;
+			}
+		});
+	}
+
+	private List<Entrada> comprarEntradas(List<Entrada> entradas, int idSesion) {
 		Optional<Sesion> sesionO = sesionService.getSesionById(idSesion);
 
 		if (!sesionO.isPresent()) {
@@ -136,77 +181,115 @@ public class EntradaService {
 		}
 
 		Sesion sesion = sesionO.get();
-		int disponibles = sesionService.getNumAsientosDisponibles(sesion);
-
-		if (disponibles <= 0) {
-			throw new IllegalStateException("No hay asientos disponibles.");
-		}
+		Usuario usuario = JWTUtils.userLogin();
 
 		LocalDateTime inicio = sesionService.getInicioSesion(sesion);
 		if (!inicio.isAfter(LocalDateTime.now())) {
 			throw new IllegalStateException("La sesión ya ha comenzado.");
 		}
 
-		if (!asientoExisteEnSala(sesion, entrada.getNumFila(), entrada.getNumAsiento())) {
-			throw new IllegalArgumentException("El asiento seleccionado no existe en la sala.");
-		}
+		OcupacionSesion ocupacion = ocupacionService.getOcupacion(sesion);
+		Set<Integer> seleccionados = new HashSet<>();
+		int retenidosPropios = 0;
+
+		for (Entrada entrada : entradas) {
+			int numFila = entrada.getNumFila();
+			int numAsiento = entrada.getNumAsiento();
 
-		if (asientoOcupado(sesion, entrada.getNumFila(), entrada.getNumAsiento())) {
-			throw new IllegalArgumentException("El asiento ya está ocupado.");
+			if (!ocupacion.existe(numFila, numAsiento)) {
+				throw new IllegalArgumentException("El asiento seleccionado no existe en la sala.");
+			}
+
+			if (!seleccionados.add(ocupacion.indice(numFila, numAsiento))) {
+				throw new IllegalArgumentException("El asiento seleccionado está repetido en la compra.");
+			}
+
+			if (ocupacion.estaOcupado(numFila, numAsiento)) {
+				throw new IllegalArgumentException("El asiento ya está ocupado.");
+			}
+
+			if (retencionService.estaRetenidoPorOtro(idSesion, numFila, numAsiento, usuario.getId())) {
+				throw new IllegalStateException("El asiento está retenido temporalmente por otro usuario.");
+			}
+
+			// La retención propia ya descuenta el asiento de los disponibles
+			if (retencionService.estaRetenidoPor(idSesion, numFila, numAsiento, usuario.getId())) {
+				retenidosPropios++;
+			}
 		}
 
-		Usuario usuario = JWTUtils.userLogin();
+		int disponibles = sesionService.getNumAsientosDisponibles(sesion) + retenidosPropios;
+
+		if (disponibles < entradas.size()) {
+			throw new IllegalStateException("No hay asientos disponibles.");
+		}
 
 		int numEntradasUsuario = getNumEntradasUsuarioEnSesion(usuario, sesion);
 
-		if (numEntradasUsuario >= 10) {
-			throw new IllegalStateException("No puedes comprar más de 10 entradas para una misma sesión.");
+		if (numEntradasUsuario + entradas.size() > MAX_ENTRADAS_POR_SESION) {
+			throw new IllegalStateException(
+					"No puedes comprar más de " + MAX_ENTRADAS_POR_SESION + " entradas para una misma sesión.");
 		}
 
-		Entrada nueva = entradaRepository.save(entrada);
+		List<Entrada> nuevas = new ArrayList<>();
+		for (Entrada entrada : entradas) {
+			Entrada nueva = new Entrada();
+			nueva.setNumFila(entrada.getNumFila());
+			nueva.setNumAsiento(entrada.getNumAsiento());
+			nuevas.add(nueva);
+		}
 
-		usuario.getEntradas().add(nueva);
+		nuevas = entradaRepository.saveAll(nuevas);
+
+		usuario.getEntradas().addAll(nuevas);
 		usuarioService.saveUsuario(usuario);
 
-		sesion.getEntradas().add(nueva);
+		sesion.getEntradas().addAll(nuevas);
+		sesionService.actualizarAsientosDisponibles(sesion, -nuevas.size());
 		sesionService.saveSesion(sesion);
+		programacionService.actualizarAsientosDisponibles(sesion.getFecha(), sesion.getId(), -nuevas.size());
+
+		for (Entrada nueva : nuevas) {
+			ocupacionService.registrarCompra(sesion.getId(), nueva.getNumFila(), nueva.getNumAsiento());
+			retencionService.liberarTrasCompra(sesion.getId(), nueva.getNumFila(), nueva.getNumAsiento(),
+					usuario.getId());
+		}
 
-		return nueva;
+		return nuevas;
 	}
 
-	public int getNumEntradasUsuarioEnSesion(Usuario usuario, Sesion sesion) {
-		int entradas = 0;
+	public RetencionDTO retenerAsiento(Entrada entrada, int idSesion) {
+		Sesion sesion = sesionService.getSesionById(idSesion)
+				.orElseThrow(() -> new EntityNotFoundException("Sesión no encontrada."));
 
-		for (Entrada entrada : usuario.getEntradas()) {
-			Optional<Sesion> sesionEntrada = sesionService.findByEntrada(entrada);
+		LocalDateTime inicio = sesionService.getInicioSesion(sesion);
+		if (!inicio.isAfter(LocalDateTime.now())) {
+			throw new IllegalStateException("La sesión ya ha comenzado.");
+		}
 
-			if (sesionEntrada.isPresent() && sesionEntrada.get().getId() == sesion.getId()) {
-				entradas++;
-			}
+		if (!asientoExisteEnSala(sesion, entrada.getNumFila(), entrada.getNumAsiento())) {
+			throw new IllegalArgumentException("El asiento seleccionado no existe en la sala.");
 		}
 
-		return entradas;
+		Usuario usuario = JWTUtils.userLogin();
+		return retencionService.retener(sesion, entrada.getNumFila(), entrada.getNumAsiento(), usuario.getId());
 	}
 
-	private boolean asientoExisteEnSala(Sesion sesion, int numFila, int numAsiento) {
-		Optional<Sala> salaO = salaService.findBySesion(sesion);
+	public void liberarAsiento(int idSesion, int numFila, int numAsiento) {
+		Usuario usuario = JWTUtils.userLogin();
+		retencionService.liberar(idSesion, numFila, numAsiento, usuario.getId());
+	}
 
-		if (!salaO.isPresent()) {
-			throw new EntityNotFoundException("Sala asociada a la sesión no encontrada.");
-		}
+	public int getNumEntradasUsuarioEnSesion(Usuario usuario, Sesion sesion) {
+		return entradaRepository.countByUsuarioAndSesion(usuario.getId(), sesion.getId());
+	}
 
-		Sala sala = salaO.get();
-		return numFila >= 1 && numFila <= sala.getNumFilas()
-				&& numAsiento >= 1 && numAsiento <= sala.getNumColumnas();
+	private boolean asientoExisteEnSala(Sesion sesion, int numFila, int numAsiento) {
+		return ocupacionService.getOcupacion(sesion).existe(numFila, numAsiento);
 	}
 
 	public boolean asientoOcupado(Sesion sesion, int numFila, int numAsiento) {
-		for (Entrada entrada : sesion.getEntradas()) {
-			if (entrada.getNumFila() == numFila && entrada.getNumAsiento() == numAsiento) {
-				return true;
-			}
-		}
-		return false;
+		return ocupacionService.getOcupacion(sesion).estaOcupado(numFila, numAsiento);
 	}
 
 	public boolean puedeCancelarEntrada(Sesion sesion) {
@@ -214,8 +297,14 @@ public class EntradaService {
 		return LocalDateTime.now().isBefore(inicio.minusHours(1));
 	}
 
-	@Transactional
 	public void deleteEntrada(int id) {
+		ejecutarConReintentos(() -> {
+			cancelarEntrada(id);
+			return null;
+		});
+	}
+
+	private void cancelarEntrada(int id) {
 		Optional<Entrada> entradaO = entradaRepository.findById(id);
 		if (!entradaO.isPresent()) {
 			throw new EntityNotFoundException("Entrada no encontrada.");
@@ -252,11 +341,28 @@ public class EntradaService {
 		}
 
 		sesion.getEntradas().remove(entrada);
+		sesionService.actualizarAsientosDisponibles(sesion, 1);
 		sesionService.saveSesion(sesion);
+		programacionService.actualizarAsientosDisponibles(sesion.getFecha(), sesion.getId(), 1);
 
 		propietario.getEntradas().remove(entrada);
 		usuarioService.saveUsuario(propietario);
 
 		entradaRepository.delete(entrada);
+
+		ocupacionService.registrarCancelacion(sesion.getId(), entrada.getNumFila(), entrada.getNumAsiento());
+	}
+
+	private <T> T ejecutarConReintentos(Supplier<T> accion) {
+		for (int intento = 1;; intento++) {
+			try {
+				return transactionTemplate.execute(estado -> accion.get());
+			} catch (OptimisticLockingFailureException ex) {
+				if (intento >= MAX_REINTENTOS) {
+					throw new IllegalStateException(
+							"La sesión está recibiendo muchas compras a la vez. Inténtalo de nuevo.");
+				}
+			}
+		}
 	}
 }
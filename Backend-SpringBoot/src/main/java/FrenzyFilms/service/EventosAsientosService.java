@@ -0,0 +1,229 @@
+package FrenzyFilms.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import FrenzyFilms.dto.CambiosAsientosDTO;
+
+/**
+ * Difusión por Server-Sent Events de los cambios de ocupación de cada sesión.
+ *
+ * Los cambios se acumulan por sesión y se envían agrupados en cada ventana;
+ * si un asiento cambia varias veces dentro de la misma ventana solo se envía
+ * su último estado. Las conexiones son asíncronas, así que los suscriptores
+ * en espera no ocupan ningún hilo.
+ *
+ * Las tareas programadas solo encolan los eventos: el envío lo hace un grupo
+ * de hilos propio, en orden para cada suscriptor, de modo que un cliente lento
+ * no retrasa al resto ni a las demás tareas programadas. Un suscriptor que
+ * acumula demasiados eventos sin enviar se desconecta.
+ */
+@Service
+public class EventosAsientosService {
+
+	@Value("${frenzyfilms.eventos.timeout-ms:1800000}")
+	private long timeoutMillis;
+
+	@Value("${frenzyfilms.eventos.hilos-envio:4}")
+	private int hilosEnvio;
+
+	@Value("${frenzyfilms.eventos.max-pendientes:64}")
+	private int maxPendientes;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private ExecutorService envios;
+
+	// Las altas y bajas pasan por compute, así el conjunto de una sesión se retira en cuanto se queda vacío
+	private final Map<Integer, Set<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+
+	// idSesion -> (fila, asiento) -> ocupado
+	private final Map<Integer, Map<Long, Boolean>> pendientes = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void iniciar() {
+		AtomicInteger numHilo = new AtomicInteger();
+		envios = Executors.newFixedThreadPool(hilosEnvio, tarea -> {
+			Thread hilo = new Thread(tarea, "eventos-asientos-" + numHilo.incrementAndGet());
+			hilo.setDaemon(true);
+			return hilo;
+		});
+	}
+
+	@PreDestroy
+	public void detener() {
+		envios.shutdownNow();
+	}
+
+	public SseEmitter suscribir(int idSesion) {
+		SseEmitter emisor = new SseEmitter(timeoutMillis);
+		Suscriptor suscriptor = new Suscriptor(emisor);
+		// Dentro de compute para que un cerrarSesion simultáneo no deje el alta en un conjunto ya retirado
+		suscriptores.compute(idSesion, (k, emisores) -> {
+			Set<Suscriptor> resultado = emisores != null ? emisores : ConcurrentHashMap.newKeySet();
+			resultado.add(suscriptor);
+			return resultado;
+		});
+
+		emisor.onCompletion(() -> quitar(idSesion, suscriptor));
+		emisor.onTimeout(() -> quitar(idSesion, suscriptor));
+		emisor.onError(ex -> quitar(idSesion, suscriptor));
+
+		return emisor;
+	}
+
+	public void registrarCambio(int idSesion, int numFila, int numAsiento, boolean ocupado) {
+		Set<Suscriptor> emisores = suscriptores.get(idSesion);
+		if (emisores == null || emisores.isEmpty()) {
+			return;
+		}
+
+		// Se modifica dentro de compute para no perder cambios mientras se envía la ventana anterior
+		pendientes.compute(idSesion, (k, cambios) -> {
+			Map<Long, Boolean> resultado = cambios != null ? cambios : new HashMap<>();
+			resultado.put(((long) numFila << 32) | numAsiento, ocupado);
+			return resultado;
+		});
+	}
+
+	public void cerrarSesion(int idSesion) {
+		TransaccionUtils.despuesDeConfirmar(() -> {
+			pendientes.remove(idSesion);
+			Set<Suscriptor> emisores = suscriptores.remove(idSesion);
+			if (emisores != null) {
+				emisores.forEach(suscriptor -> suscriptor.emisor.complete());
+			}
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${frenzyfilms.eventos.ventana-ms:250}")
+	public void enviarCambios() {
+		for (Integer idSesion : pendientes.keySet()) {
+			Map<Long, Boolean> cambios = pendientes.remove(idSesion);
+			if (cambios == null || cambios.isEmpty()) {
+				continue;
+			}
+
+			List<int[]> ocupados = new ArrayList<>();
+			List<int[]> liberados = new ArrayList<>();
+			cambios.forEach((asiento, ocupado) -> {
+				int[] par = new int[] { (int) (asiento >>> 32), (int) (long) asiento };
+				(ocupado ? ocupados : liberados).add(par);
+			});
+
+			String datos;
+			try {
+				datos = objectMapper.writeValueAsString(new CambiosAsientosDTO(idSesion, ocupados, liberados));
+			} catch (JsonProcessingException ex) {
+				throw new RuntimeException("Error al serializar los cambios de asientos", ex);
+			}
+
+			enviar(idSesion, SseEmitter.event().name("asientos").data(datos, MediaType.APPLICATION_JSON).build());
+		}
+	}
+
+	// Mantiene vivas las conexiones a través de proxies y detecta clientes desconectados
+	@Scheduled(fixedRateString = "${frenzyfilms.eventos.latido-ms:30000}")
+	public void enviarLatido() {
+		for (Integer idSesion : suscriptores.keySet()) {
+			enviar(idSesion, SseEmitter.event().comment("latido").build());
+		}
+	}
+
+	// El evento se construye una sola vez y se reutiliza para todos los suscriptores
+	private void enviar(int idSesion, Set<ResponseBodyEmitter.DataWithMediaType> evento) {
+		Set<Suscriptor> emisores = suscriptores.get(idSesion);
+		if (emisores == null) {
+			return;
+		}
+
+		for (Suscriptor suscriptor : emisores) {
+			if (suscriptor.numPendientes.incrementAndGet() > maxPendientes) {
+				// No consume los eventos al ritmo al que llegan: se desconecta en vez de acumularlos
+				desconectar(idSesion, suscriptor, new IOException("Suscriptor demasiado lento."));
+				continue;
+			}
+
+			suscriptor.pendientes.add(evento);
+			if (suscriptor.enviando.compareAndSet(false, true)) {
+				envios.execute(() -> vaciar(idSesion, suscriptor));
+			}
+		}
+	}
+
+	// Solo un hilo a la vez vacía la cola de cada suscriptor, así los eventos llegan en orden
+	private void vaciar(int idSesion, Suscriptor suscriptor) {
+		while (true) {
+			Set<ResponseBodyEmitter.DataWithMediaType> evento;
+			while ((evento = suscriptor.pendientes.poll()) != null) {
+				suscriptor.numPendientes.decrementAndGet();
+				try {
+					suscriptor.emisor.send(evento);
+				} catch (IOException | IllegalStateException ex) {
+					desconectar(idSesion, suscriptor, ex);
+					return;
+				}
+			}
+
+			suscriptor.enviando.set(false);
+			// Un evento encolado justo antes de soltar la marca se quedaría sin enviar
+			if (suscriptor.pendientes.isEmpty() || !suscriptor.enviando.compareAndSet(false, true)) {
+				return;
+			}
+		}
+	}
+
+	private void desconectar(int idSesion, Suscriptor suscriptor, Throwable causa) {
+		if (quitar(idSesion, suscriptor)) {
+			suscriptor.pendientes.clear();
+			suscriptor.emisor.completeWithError(causa);
+		}
+	}
+
+	// Devuelve false si ya se había quitado, para desconectar a cada suscriptor una sola vez
+	private boolean quitar(int idSesion, Suscriptor suscriptor) {
+		boolean[] quitado = { false };
+		suscriptores.computeIfPresent(idSesion, (k, emisores) -> {
+			quitado[0] = emisores.remove(suscriptor);
+			return emisores.isEmpty() ? null : emisores;
+		});
+		return quitado[0];
+	}
+
+	private static class Suscriptor {
+		private final SseEmitter emisor;
+		private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> pendientes = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger numPendientes = new AtomicInteger();
+		private final AtomicBoolean enviando = new AtomicBoolean();
+
+		private Suscriptor(SseEmitter emisor) {
+			this.emisor = emisor;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package FrenzyFilms.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.transaction.Transactional;
+import FrenzyFilms.dto.GeneroFacetaDTO;
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Genero;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.repository.GeneroRepository;
+import FrenzyFilms.repository.PeliculaRepository;
+
+/**
+ * Géneros normalizados y recuento de películas en cartelera por género.
+ *
+ * Se mantiene en memoria, para cada género, el conjunto de películas no
+ * descatalogadas que lo tienen, de modo que las facetas se obtienen sin
+ * recorrer el catálogo. El índice se construye al arrancar y se corrige
+ * película a película al importar, cambiar de estado o eliminar, también
+ * cuando el cambio se hace en otra instancia.
+ */
+@Service
+public class GeneroService {
+
+	@Autowired
+	private GeneroRepository generoRepository;
+
+	@Autowired
+	private PeliculaRepository peliculaRepository;
+
+	// nombre del género -> películas en cartelera
+	private final Map<String, Set<Integer>> peliculasPorGenero = new HashMap<>();
+
+	// idPelicula -> géneros indexados, para poder retirarlos
+	private final Map<Integer, Set<String>> generosPorPelicula = new HashMap<>();
+
+	// nombre normalizado -> nombre guardado, para aceptar el género sin tildes ni mayúsculas
+	private final Map<String, String> nombres = new HashMap<>();
+
+	// Se lee con el cerrojo tomado, para que ninguna actualización por película quede pisada por la carga
+	synchronized void construirIndice() {
+		for (Genero genero : generoRepository.findAll()) {
+			registrarNombre(genero.getNombre());
+		}
+
+		peliculasPorGenero.clear();
+		generosPorPelicula.clear();
+		for (Object[] fila : generoRepository.findGenerosDePeliculasConEstadoDistinto(Estado.DESCATALOGADA)) {
+			int idPelicula = (Integer) fila[0];
+			String nombre = (String) fila[1];
+
+			peliculasPorGenero.computeIfAbsent(nombre, n -> new HashSet<>()).add(idPelicula);
+			generosPorPelicula.computeIfAbsent(idPelicula, id -> new HashSet<>()).add(nombre);
+		}
+	}
+
+	public synchronized List<GeneroFacetaDTO> getFacetas() {
+		List<GeneroFacetaDTO> facetas = new ArrayList<>();
+		for (Map.Entry<String, Set<Integer>> entrada : peliculasPorGenero.entrySet()) {
+			facetas.add(new GeneroFacetaDTO(entrada.getKey(), entrada.getValue().size()));
+		}
+
+		facetas.sort(Comparator.comparingInt(GeneroFacetaDTO::getNumPeliculas).reversed()
+				.thenComparing(GeneroFacetaDTO::getNombre));
+		return facetas;
+	}
+
+	public synchronized Optional<String> buscarNombre(String genero) {
+		return Optional.ofNullable(nombres.get(BusquedaPeliculasService.normalizar(genero.trim())));
+	}
+
+	// Devuelve los géneros con esos nombres, creando los que aún no existen
+	@Transactional
+	public Set<Genero> getOrCreate(Collection<String> nombresGenero) {
+		Map<String, String> pendientes = new LinkedHashMap<>();
+		for (String nombre : nombresGenero) {
+			String limpio = nombre == null ? "" : nombre.trim();
+			if (!limpio.isEmpty()) {
+				String normalizado = BusquedaPeliculasService.normalizar(limpio);
+				pendientes.putIfAbsent(normalizado, buscarNombre(limpio).orElse(limpio));
+			}
+		}
+
+		Set<Genero> generos = new HashSet<>(generoRepository.findByNombreIn(pendientes.values()));
+		for (Genero genero : generos) {
+			pendientes.remove(BusquedaPeliculasService.normalizar(genero.getNombre()));
+		}
+
+		// En orden, para que dos importaciones con los mismos géneros nuevos no se bloqueen la una a la otra
+		for (String nombre : new TreeSet<>(pendientes.values())) {
+			generos.add(crearGenero(nombre));
+		}
+
+		return generos;
+	}
+
+	// Se crea en la transacción de quien lo necesita; si otra importación lo crea a la vez, se usa el suyo.
+	// El nombre solo se registra si la transacción se confirma.
+	private Genero crearGenero(String nombre) {
+		generoRepository.insertarSiNoExiste(nombre);
+		Genero genero = generoRepository.findByNombre(nombre)
+				.orElseThrow(() -> new IllegalStateException("No se ha podido guardar el género " + nombre + "."));
+
+		TransaccionUtils.despuesDeConfirmar(() -> registrarNombre(nombre));
+		return genero;
+	}
+
+	// Rellena los géneros normalizados de las películas que solo tienen el texto de géneros
+	@Transactional
+	public void normalizarGeneros() {
+		for (Genero genero : generoRepository.findAll()) {
+			registrarNombre(genero.getNombre());
+		}
+
+		for (Pelicula pelicula : peliculaRepository.findByGenerosIsEmpty()) {
+			if (pelicula.getGenero() == null || pelicula.getGenero().isBlank()) {
+				continue;
+			}
+
+			pelicula.setGeneros(getOrCreate(List.of(pelicula.getGenero().split(","))));
+			peliculaRepository.save(pelicula);
+		}
+	}
+
+	public void actualizarPelicula(Pelicula pelicula) {
+		int idPelicula = pelicula.getId();
+		boolean enCartelera = pelicula.getEstado() != Estado.DESCATALOGADA;
+		// Se leen dentro de la transacción; el índice se modifica solo si se confirma
+		Set<String> nombresGenero = new HashSet<>();
+		if (pelicula.getGeneros() != null) {
+			for (Genero genero : pelicula.getGeneros()) {
+				nombresGenero.add(genero.getNombre());
+			}
+		}
+
+		TransaccionUtils.despuesDeConfirmar(() -> {
+			synchronized (this) {
+				retirarAhora(idPelicula);
+				for (String nombre : nombresGenero) {
+					registrarNombre(nombre);
+				}
+				if (enCartelera && !nombresGenero.isEmpty()) {
+					for (String nombre : nombresGenero) {
+						peliculasPorGenero.computeIfAbsent(nombre, n -> new HashSet<>()).add(idPelicula);
+					}
+					generosPorPelicula.put(idPelicula, nombresGenero);
+				}
+			}
+		});
+	}
+
+	public void eliminarPelicula(int idPelicula) {
+		TransaccionUtils.despuesDeConfirmar(() -> {
+			synchronized (this) {
+				retirarAhora(idPelicula);
+			}
+		});
+	}
+
+	private synchronized void registrarNombre(String nombre) {
+		nombres.putIfAbsent(BusquedaPeliculasService.normalizar(nombre), nombre);
+	}
+
+	private void retirarAhora(int idPelicula) {
+		Set<String> anteriores = generosPorPelicula.remove(idPelicula);
+		if (anteriores == null) {
+			return;
+		}
+
+		for (String nombre : anteriores) {
+			Set<Integer> peliculas = peliculasPorGenero.get(nombre);
+			if (peliculas != null) {
+				peliculas.remove(idPelicula);
+				if (peliculas.isEmpty()) {
+					peliculasPorGenero.remove(nombre);
+				}
+			}
+		}
+	}
+}
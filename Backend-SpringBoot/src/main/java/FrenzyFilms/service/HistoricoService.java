@@ -0,0 +1,157 @@
+package FrenzyFilms.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FrenzyFilms.dto.EntradaDetalladaPlanoDTO;
+import FrenzyFilms.entity.Admin;
+import FrenzyFilms.entity.Persona;
+import FrenzyFilms.entity.SesionHistorica;
+import FrenzyFilms.entity.Usuario;
+import FrenzyFilms.repository.EntradaHistoricaRepository;
+import FrenzyFilms.repository.SesionHistoricaRepository;
+import FrenzyFilms.repository.SesionRepository;
+import FrenzyFilms.security.JWTUtils;
+
+/**
+ * Archivo de sesiones terminadas y sus entradas.
+ *
+ * Periódicamente se copian a sesion_historica y entrada_historica las sesiones
+ * de días ya pasados y se eliminan de las tablas principales, que así solo
+ * guardan la programación vigente. Cada lote se archiva en su propia
+ * transacción para no bloquear las tablas durante toda la pasada. Con varias
+ * instancias, un cerrojo en base de datos hace que solo una archive a la vez.
+ */
+@Service
+public class HistoricoService {
+
+	private static final String TAREA = "archivo-sesiones";
+
+	@Autowired
+	private SesionRepository sesionRepository;
+
+	@Autowired
+	private SesionHistoricaRepository sesionHistoricaRepository;
+
+	@Autowired
+	private EntradaHistoricaRepository entradaHistoricaRepository;
+
+	@Autowired
+	private OcupacionService ocupacionService;
+
+	@Autowired
+	private RetencionService retencionService;
+
+	@Autowired
+	private EventosAsientosService eventosAsientosService;
+
+	@Autowired
+	private ColaEsperaService colaEsperaService;
+
+	@Autowired
+	private CarteleraService carteleraService;
+
+	@Autowired
+	private BloqueoTareasService bloqueoTareasService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JWTUtils JWTUtils;
+
+	// Días completos que se conservan en las tablas principales tras el día de la sesión
+	@Value("${frenzyfilms.historico.dias-retencion:7}")
+	private int diasRetencion;
+
+	@Value("${frenzyfilms.historico.tamano-lote:500}")
+	private int tamañoLote;
+
+	@Value("${frenzyfilms.historico.bloqueo-maximo-minutos:30}")
+	private int bloqueoMaximoMinutos;
+
+	@Scheduled(cron = "${frenzyfilms.historico.cron:0 30 4 * * *}")
+	public int archivarSesionesTerminadas() {
+		LocalDate limite = LocalDate.now().minusDays(diasRetencion);
+		List<Integer> archivadas = new ArrayList<>();
+
+		// Si otra instancia está archivando, esta pasada se omite
+		bloqueoTareasService.ejecutarSiLibre(TAREA, Duration.ofMinutes(bloqueoMaximoMinutos), () -> {
+			try {
+				while (true) {
+					List<Integer> lote = transactionTemplate.execute(estado -> archivarLote(limite));
+					archivadas.addAll(lote);
+
+					if (lote.size() < tamañoLote) {
+						return;
+					}
+				}
+			} finally {
+				// Una sola vez por pasada, con lo que se haya confirmado aunque un lote falle
+				liberarArchivadas(archivadas);
+			}
+		});
+		return archivadas.size();
+	}
+
+	private List<Integer> archivarLote(LocalDate limite) {
+		List<Integer> ids = sesionRepository.findIdsAnterioresA(limite, tamañoLote);
+		if (ids.isEmpty()) {
+			return ids;
+		}
+
+		sesionHistoricaRepository.archivarSesiones(ids);
+		entradaHistoricaRepository.archivarEntradasDeSesiones(ids);
+		sesionRepository.eliminarEntradasDeSesiones(ids);
+		sesionRepository.eliminarSesiones(ids);
+
+		return ids;
+	}
+
+	private void liberarArchivadas(List<Integer> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		for (int id : ids) {
+			ocupacionService.invalidar(id);
+			retencionService.eliminarRetencionesDeSesion(id);
+			eventosAsientosService.cerrarSesion(id);
+			colaEsperaService.eliminarSesion(id);
+		}
+
+		carteleraService.invalidar();
+	}
+
+	public List<EntradaDetalladaPlanoDTO> getEntradasDetalladasHistoricas() {
+		Usuario usuario = JWTUtils.userLogin();
+		return entradaHistoricaRepository.findDetalladasByUsuario(usuario.getId());
+	}
+
+	public List<SesionHistorica> getSesionesHistoricasByPelicula(int idPelicula) {
+		comprobarAdmin();
+		return sesionHistoricaRepository.findByIdPeliculaOrderByFechaDescHoraInicioDesc(idPelicula);
+	}
+
+	public List<SesionHistorica> getSesionesHistoricasBySala(int idSala) {
+		comprobarAdmin();
+		return sesionHistoricaRepository.findByIdSalaOrderByFechaDescHoraInicioDesc(idSala);
+	}
+
+	private void comprobarAdmin() {
+		Persona userLogin = JWTUtils.userLogin();
+
+		if (!(userLogin instanceof Admin)) {
+			throw new AccessDeniedException("Solo los administradores pueden consultar el histórico de sesiones.");
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package FrenzyFilms.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Índice de intervalos [inicio, fin) con las sesiones pendientes de una sala.
+ *
+ * Los intervalos se ordenan por inicio. Como ninguna sesión dura más que la
+ * más larga del índice, para saber si un intervalo se solapa con alguno basta
+ * con recorrer hacia atrás los que empiezan antes de su fin, deteniéndose al
+ * llegar a los que empiezan antes de inicio - duración máxima.
+ */
+public class HorarioSala {
+
+	private static final Comparator<Intervalo> ORDEN = Comparator.comparing((Intervalo i) -> i.inicio)
+			.thenComparingInt(i -> i.idSesion);
+
+	private final NavigableSet<Intervalo> intervalos = new TreeSet<>(ORDEN);
+	private long duracionMaximaMinutos;
+
+	public synchronized void añadir(int idSesion, LocalDateTime inicio, LocalDateTime fin) {
+		intervalos.add(new Intervalo(idSesion, inicio, fin));
+		duracionMaximaMinutos = Math.max(duracionMaximaMinutos, Duration.between(inicio, fin).toMinutes());
+	}
+
+	// Devuelve el id de la primera sesión que se solapa, o 0 si no hay ninguna
+	public synchronized int buscarSolapamiento(LocalDateTime inicio, LocalDateTime fin, int idSesionExcluida) {
+		Intervalo limite = new Intervalo(Integer.MIN_VALUE, fin, fin);
+		LocalDateTime inicioMinimo = inicio.minusMinutes(duracionMaximaMinutos);
+
+		for (Intervalo intervalo : intervalos.headSet(limite, false).descendingSet()) {
+			if (intervalo.inicio.isBefore(inicioMinimo)) {
+				break;
+			}
+			if (intervalo.idSesion != idSesionExcluida && intervalo.fin.isAfter(inicio)) {
+				return intervalo.idSesion;
+			}
+		}
+		return 0;
+	}
+
+	// Intervalos que se solapan con [desde, hasta), ordenados por inicio, como pares {inicio, fin}
+	public synchronized List<LocalDateTime[]> getOcupados(LocalDateTime desde, LocalDateTime hasta) {
+		Intervalo primero = new Intervalo(Integer.MIN_VALUE, desde.minusMinutes(duracionMaximaMinutos), desde);
+		Intervalo limite = new Intervalo(Integer.MIN_VALUE, hasta, hasta);
+		List<LocalDateTime[]> ocupados = new ArrayList<>();
+
+		for (Intervalo intervalo : intervalos.subSet(primero, true, limite, false)) {
+			if (intervalo.fin.isAfter(desde)) {
+				ocupados.add(new LocalDateTime[] { intervalo.inicio, intervalo.fin });
+			}
+		}
+		return ocupados;
+	}
+
+	private static class Intervalo {
+		private final int idSesion;
+		private final LocalDateTime inicio;
+		private final LocalDateTime fin;
+
+		private Intervalo(int idSesion, LocalDateTime inicio, LocalDateTime fin) {
+			this.idSesion = idSesion;
+			this.inicio = inicio;
+			this.fin = fin;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package FrenzyFilms.service;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.repository.SesionRepository;
+
+@Service
+public class HorarioSalaService {
+
+	@Autowired
+	private SesionRepository sesionRepository;
+
+	// idSala -> sesiones pendientes de la sala
+	private final Map<Integer, HorarioSala> horarios = new ConcurrentHashMap<>();
+
+	// Invalidaciones por sala: un horario cargado antes de un cambio no se guarda
+	private final Map<Integer, Long> generaciones = new ConcurrentHashMap<>();
+
+	public boolean hayConflicto(int idSala, LocalDateTime inicio, LocalDateTime fin, int idSesionExcluida) {
+		return getHorario(idSala).buscarSolapamiento(inicio, fin, idSesionExcluida) != 0;
+	}
+
+	// Se construye con una sola consulta la primera vez que se consulta la sala
+	public HorarioSala getHorario(int idSala) {
+		HorarioSala horario = horarios.get(idSala);
+		if (horario != null) {
+			return horario;
+		}
+
+		long inicio = generaciones.getOrDefault(idSala, 0L);
+		HorarioSala nuevo = cargarHorario(idSala);
+
+		// compute serializa el guardado con las invalidaciones de la misma sala
+		HorarioSala guardado = horarios.compute(idSala, (id, actual) -> {
+			if (actual != null) {
+				return actual;
+			}
+			return generaciones.getOrDefault(id, 0L) == inicio ? nuevo : null;
+		});
+		return guardado != null ? guardado : nuevo;
+	}
+
+	// Copia independiente de la caché, para simular cambios antes de guardarlos
+	public HorarioSala cargarHorario(int idSala) {
+		LocalDateTime ahora = LocalDateTime.now();
+		HorarioSala horario = new HorarioSala();
+
+		// Desde el día anterior, por las sesiones que empiezan antes de medianoche y aún no han terminado
+		for (Object[] fila : sesionRepository.findHorariosBySalaDesde(idSala, ahora.toLocalDate().minusDays(1))) {
+			LocalDateTime inicio = LocalDateTime.of(toLocalDate(fila[1]), toLocalTime(fila[2]));
+			LocalDateTime fin = inicio.plusMinutes(((Number) fila[3]).intValue());
+
+			if (fin.isAfter(ahora)) {
+				horario.añadir(((Number) fila[0]).intValue(), inicio, fin);
+			}
+		}
+
+		return horario;
+	}
+
+	// Las sesiones ya terminadas no se quitan: no pueden solaparse con una sesión futura
+	public void invalidar(int idSala) {
+		TransaccionUtils.despuesDeConfirmar(() -> horarios.compute(idSala, (id, horario) -> {
+			generaciones.merge(id, 1L, Long::sum);
+			return null;
+		}));
+	}
+
+	static LocalDate toLocalDate(Object valor) {
+		return valor instanceof Date fecha ? fecha.toLocalDate() : (LocalDate) valor;
+	}
+
+	static LocalTime toLocalTime(Object valor) {
+		return valor instanceof Time hora ? hora.toLocalTime() : (LocalTime) valor;
+	}
+}
@@ -0,0 +1,135 @@
+package FrenzyFilms.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Almacén de claves de idempotencia para las operaciones de compra y cancelación.
+ *
+ * La primera petición con una clave ejecuta la operación y guarda su resultado;
+ * las repeticiones devuelven ese mismo resultado sin volver a ejecutarla, y las
+ * que llegan mientras la primera sigue en curso esperan a que termine. Si la
+ * operación falla la clave se descarta para que el cliente pueda reintentar.
+ */
+@Service
+public class IdempotenciaService {
+
+	public static final String CABECERA = "Idempotency-Key";
+
+	private static final int LONGITUD_MAXIMA_CLAVE = 128;
+
+	@Value("${frenzyfilms.idempotencia.ttl-segundos:86400}")
+	private long ttlSegundos;
+
+	@Value("${frenzyfilms.idempotencia.max-claves:100000}")
+	private int maxClaves;
+
+	// Orden de inserción: las primeras entradas son siempre las más antiguas
+	private final LinkedHashMap<String, Registro> registros = new LinkedHashMap<>();
+
+	@SuppressWarnings("unchecked")
+	public <T> T ejecutar(String clave, String operacion, Supplier<T> accion) {
+		if (clave == null) {
+			return accion.get();
+		}
+		if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+			throw new IllegalArgumentException(
+					"La cabecera " + CABECERA + " debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres.");
+		}
+
+		// La clave es propia de cada usuario: dos usuarios pueden generar la misma sin pisarse
+		String username = SecurityContextHolder.getContext().getAuthentication().getName();
+		String id = username + ":" + clave;
+		long ahora = System.currentTimeMillis();
+
+		Registro nuevo = new Registro(operacion, ahora + ttlSegundos * 1000);
+		Registro registro;
+		synchronized (registros) {
+			registro = registros.get(id);
+			if (registro == null || registro.haCaducado(ahora)) {
+				registros.remove(id);
+				registros.put(id, nuevo);
+				descartarSobrantes();
+				registro = nuevo;
+			}
+		}
+
+		if (!registro.operacion.equals(operacion)) {
+			throw new IllegalArgumentException("La clave de idempotencia ya se ha usado para otra operación.");
+		}
+
+		if (registro != nuevo) {
+			try {
+				return (T) registro.resultado.join();
+			} catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException causa) {
+					throw causa;
+				}
+				throw ex;
+			}
+		}
+
+		try {
+			T resultado = accion.get();
+			nuevo.resultado.complete(resultado);
+			return resultado;
+		} catch (RuntimeException ex) {
+			synchronized (registros) {
+				registros.remove(id, nuevo);
+			}
+			nuevo.resultado.completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	@Scheduled(fixedRate = 60000)
+	public void eliminarCaducadas() {
+		long ahora = System.currentTimeMillis();
+		synchronized (registros) {
+			// Todas comparten el mismo TTL, así que caducan en orden de inserción
+			Iterator<Registro> it = registros.values().iterator();
+			while (it.hasNext()) {
+				Registro registro = it.next();
+				if (registro.haCaducado(ahora)) {
+					it.remove();
+				} else if (registro.expiraEn > ahora) {
+					break;
+				}
+			}
+		}
+	}
+
+	// Si se supera el máximo se descartan las más antiguas ya resueltas
+	private void descartarSobrantes() {
+		Iterator<Map.Entry<String, Registro>> it = registros.entrySet().iterator();
+		while (registros.size() > maxClaves && it.hasNext()) {
+			if (it.next().getValue().resultado.isDone()) {
+				it.remove();
+			}
+		}
+	}
+
+	private static class Registro {
+		private final String operacion;
+		private final long expiraEn;
+		private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+
+		private Registro(String operacion, long expiraEn) {
+			this.operacion = operacion;
+			this.expiraEn = expiraEn;
+		}
+
+		private boolean haCaducado(long ahora) {
+			return expiraEn <= ahora && resultado.isDone();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package FrenzyFilms.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mochila no acotada: cada elemento puede elegirse las veces que quepa.
+ *
+ * Se resuelve por programación dinámica sobre la capacidad: mejor[c] es el
+ * mejor valor que cabe en c unidades, y eleccion[c] el elemento que lo
+ * consigue (o -1 si la última unidad queda vacía).
+ */
+public final class MochilaNoAcotada {
+
+	private MochilaNoAcotada() {
+	}
+
+	// Devuelve los índices de los elementos elegidos, con repeticiones
+	public static List<Integer> resolver(int capacidad, int[] pesos, long[] valores) {
+		List<Integer> elegidos = new ArrayList<>();
+		if (capacidad <= 0) {
+			return elegidos;
+		}
+
+		long[] mejor = new long[capacidad + 1];
+		int[] eleccion = new int[capacidad + 1];
+		eleccion[0] = -1;
+
+		for (int c = 1; c <= capacidad; c++) {
+			mejor[c] = mejor[c - 1];
+			eleccion[c] = -1;
+
+			for (int i = 0; i < pesos.length; i++) {
+				if (pesos[i] <= c) {
+					long valor = mejor[c - pesos[i]] + valores[i];
+					if (valor > mejor[c]) {
+						mejor[c] = valor;
+						eleccion[c] = i;
+					}
+				}
+			}
+		}
+
+		int c = capacidad;
+		while (c > 0) {
+			if (eleccion[c] < 0) {
+				c--;
+			} else {
+				elegidos.add(eleccion[c]);
+				c -= pesos[eleccion[c]];
+			}
+		}
+		return elegidos;
+	}
+}
@@ -0,0 +1,95 @@
+package FrenzyFilms.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.entity.Sala;
+import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.repository.EntradaRepository;
+
+@Service
+public class OcupacionService {
+
+	@Autowired
+	private SalaService salaService;
+
+	@Autowired
+	private EntradaRepository entradaRepository;
+
+	@Autowired
+	private EventosAsientosService eventosAsientosService;
+
+	private final Map<Integer, OcupacionSesion> ocupaciones = new ConcurrentHashMap<>();
+
+	// Cambios confirmados por sesión: un mapa cargado antes de un cambio no se guarda
+	private final Map<Integer, Long> generaciones = new ConcurrentHashMap<>();
+
+	// Se construye a partir de la BD la primera vez que se consulta la sesión
+	public OcupacionSesion getOcupacion(Sesion sesion) {
+		int idSesion = sesion.getId();
+		OcupacionSesion ocupacion = ocupaciones.get(idSesion);
+		if (ocupacion != null) {
+			return ocupacion;
+		}
+
+		long inicio = generaciones.getOrDefault(idSesion, 0L);
+
+		Optional<Sala> salaO = salaService.findBySesion(sesion);
+		if (!salaO.isPresent()) {
+			throw new IllegalStateException("La sesión no está asociada a ninguna sala.");
+		}
+
+		Sala sala = salaO.get();
+		OcupacionSesion nueva = new OcupacionSesion(sala.getNumFilas(), sala.getNumColumnas());
+		// Se consulta la BD en vez de sesion.getEntradas(), que pudo cargarse antes de leer la generación
+		for (Object[] asiento : entradaRepository.findAsientosBySesion(idSesion)) {
+			nueva.ocupar(((Number) asiento[0]).intValue(), ((Number) asiento[1]).intValue());
+		}
+
+		// compute serializa el guardado con los cambios de la misma sesión
+		OcupacionSesion guardada = ocupaciones.compute(idSesion, (id, actual) -> {
+			if (actual != null) {
+				return actual;
+			}
+			return generaciones.getOrDefault(id, 0L) == inicio ? nueva : null;
+		});
+		return guardada != null ? guardada : nueva;
+	}
+
+	public void registrarCompra(int idSesion, int numFila, int numAsiento) {
+		TransaccionUtils.despuesDeConfirmar(() -> {
+			ocupaciones.compute(idSesion, (id, ocupacion) -> {
+				generaciones.merge(id, 1L, Long::sum);
+				if (ocupacion != null) {
+					ocupacion.ocupar(numFila, numAsiento);
+				}
+				return ocupacion;
+			});
+			eventosAsientosService.registrarCambio(idSesion, numFila, numAsiento, true);
+		});
+	}
+
+	public void registrarCancelacion(int idSesion, int numFila, int numAsiento) {
+		TransaccionUtils.despuesDeConfirmar(() -> {
+			ocupaciones.compute(idSesion, (id, ocupacion) -> {
+				generaciones.merge(id, 1L, Long::sum);
+				if (ocupacion != null) {
+					ocupacion.liberar(numFila, numAsiento);
+				}
+				return ocupacion;
+			});
+			eventosAsientosService.registrarCambio(idSesion, numFila, numAsiento, false);
+		});
+	}
+
+	public void invalidar(int idSesion) {
+		TransaccionUtils.despuesDeConfirmar(() -> ocupaciones.compute(idSesion, (id, ocupacion) -> {
+			generaciones.merge(id, 1L, Long::sum);
+			return null;
+		}));
+	}
+}
@@ -0,0 +1,146 @@
+package FrenzyFilms.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mapa de bits con la ocupación de los asientos de una sesión.
+ *
+ * Cada asiento ocupa un bit, en orden fila a fila: el asiento (fila, asiento)
+ * corresponde al índice (fila - 1) * numColumnas + (asiento - 1).
+ */
+public class OcupacionSesion {
+
+	private final int numFilas;
+	private final int numColumnas;
+	private final AtomicLongArray bits;
+	private final AtomicInteger numOcupados = new AtomicInteger();
+	private final AtomicLong numCambios = new AtomicLong();
+	private volatile MapaCodificado mapaCodificado;
+
+	public OcupacionSesion(int numFilas, int numColumnas) {
+		this.numFilas = numFilas;
+		this.numColumnas = numColumnas;
+		this.bits = new AtomicLongArray((numFilas * numColumnas + 63) / 64);
+	}
+
+	public int getNumFilas() {
+		return numFilas;
+	}
+
+	public int getNumColumnas() {
+		return numColumnas;
+	}
+
+	public int getNumAsientos() {
+		return numFilas * numColumnas;
+	}
+
+	public int getNumOcupados() {
+		return numOcupados.get();
+	}
+
+	public int getNumLibres() {
+		return getNumAsientos() - getNumOcupados();
+	}
+
+	public boolean existe(int numFila, int numAsiento) {
+		return numFila >= 1 && numFila <= numFilas && numAsiento >= 1 && numAsiento <= numColumnas;
+	}
+
+	public int indice(int numFila, int numAsiento) {
+		return (numFila - 1) * numColumnas + (numAsiento - 1);
+	}
+
+	public boolean estaOcupado(int numFila, int numAsiento) {
+		return existe(numFila, numAsiento) && estaOcupado(indice(numFila, numAsiento));
+	}
+
+	public boolean estaOcupado(int indice) {
+		return (bits.get(indice >>> 6) & (1L << indice)) != 0;
+	}
+
+	// Devuelve false si el asiento ya estaba ocupado
+	public boolean ocupar(int numFila, int numAsiento) {
+		if (!existe(numFila, numAsiento)) {
+			return false;
+		}
+
+		int indice = indice(numFila, numAsiento);
+		int palabra = indice >>> 6;
+		long mascara = 1L << indice;
+
+		while (true) {
+			long actual = bits.get(palabra);
+			if ((actual & mascara) != 0) {
+				return false;
+			}
+			if (bits.compareAndSet(palabra, actual, actual | mascara)) {
+				numOcupados.incrementAndGet();
+				numCambios.incrementAndGet();
+				return true;
+			}
+		}
+	}
+
+	// Devuelve false si el asiento ya estaba libre
+	public boolean liberar(int numFila, int numAsiento) {
+		if (!existe(numFila, numAsiento)) {
+			return false;
+		}
+
+		int indice = indice(numFila, numAsiento);
+		int palabra = indice >>> 6;
+		long mascara = 1L << indice;
+
+		while (true) {
+			long actual = bits.get(palabra);
+			if ((actual & mascara) == 0) {
+				return false;
+			}
+			if (bits.compareAndSet(palabra, actual, actual & ~mascara)) {
+				numOcupados.decrementAndGet();
+				numCambios.incrementAndGet();
+				return true;
+			}
+		}
+	}
+
+	// Mapa en Base64, un bit por asiento (bit i en el byte i / 8, posición i % 8)
+	public String getMapaCodificado() {
+		long version = numCambios.get();
+		MapaCodificado cacheado = mapaCodificado;
+		if (cacheado != null && cacheado.version == version) {
+			return cacheado.mapa;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(bits.length() * 8).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < bits.length(); i++) {
+			buffer.putLong(bits.get(i));
+		}
+
+		byte[] bytes = new byte[(getNumAsientos() + 7) / 8];
+		buffer.rewind();
+		buffer.get(bytes);
+
+		String mapa = Base64.getEncoder().encodeToString(bytes);
+		if (numCambios.get() == version) {
+			mapaCodificado = new MapaCodificado(version, mapa);
+		}
+		return mapa;
+	}
+
+	private static class MapaCodificado {
+		private final long version;
+		private final String mapa;
+
+		private MapaCodificado(long version, String mapa) {
+			this.version = version;
+			this.mapa = mapa;
+		}
+	}
+}
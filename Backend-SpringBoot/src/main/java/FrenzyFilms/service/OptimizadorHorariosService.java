@@ -0,0 +1,263 @@
+package FrenzyFilms.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.dto.OptimizacionHorarioDTO;
+import FrenzyFilms.dto.PeliculaCandidataDTO;
+import FrenzyFilms.dto.PropuestaHorarioDTO;
+import FrenzyFilms.dto.SesionPropuestaDTO;
+import FrenzyFilms.entity.Admin;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.entity.Persona;
+import FrenzyFilms.entity.Sala;
+import FrenzyFilms.security.JWTUtils;
+
+/**
+ * Propuestas de programación que llenan los huecos libres de cada sala.
+ *
+ * Cada hueco entre la apertura, las sesiones ya programadas y el cierre se
+ * rellena resolviendo una mochila no acotada en bloques de 5 minutos: cada
+ * película ocupa su duración más la limpieza, y se maximizan primero los
+ * minutos de proyección y después la suma de prioridades. Las salas se
+ * calculan en paralelo sobre el horario en memoria, sin tocar la base de datos.
+ */
+@Service
+public class OptimizadorHorariosService {
+
+	private static final int MINUTOS_POR_BLOQUE = 5;
+	private static final int MAX_PRIORIDAD = 100;
+	private static final int MAX_DIAS = 31;
+
+	// Un minuto más de proyección siempre vale más que cualquier combinación de prioridades
+	private static final long PESO_MINUTO = 1_000_000L;
+
+	@Autowired
+	private PeliculaService peliculaService;
+
+	@Autowired
+	private SalaService salaService;
+
+	@Autowired
+	private HorarioSalaService horarioSalaService;
+
+	@Autowired
+	private JWTUtils JWTUtils;
+
+	public PropuestaHorarioDTO optimizar(OptimizacionHorarioDTO peticion) {
+		Persona userLogin = JWTUtils.userLogin();
+
+		if (!(userLogin instanceof Admin)) {
+			throw new AccessDeniedException("Solo los administradores pueden programar sesiones.");
+		}
+
+		validar(peticion);
+
+		List<Candidata> candidatas = cargarCandidatas(peticion);
+		List<Sala> salas = peticion.getIdsSalas() == null || peticion.getIdsSalas().isEmpty()
+				? salaService.getAllSalas()
+				: salaService.getSalasByIds(peticion.getIdsSalas());
+
+		// Los horarios se cargan antes de repartir el trabajo para no consultar la BD desde varios hilos
+		Map<Integer, HorarioSala> horarios = new HashMap<>();
+		for (Sala sala : salas) {
+			horarios.put(sala.getId(), horarioSalaService.getHorario(sala.getId()));
+		}
+
+		LocalDateTime ahora = LocalDateTime.now();
+		List<ResultadoSala> resultados = salas.parallelStream()
+				.map(sala -> planificarSala(sala, horarios.get(sala.getId()), candidatas, peticion, ahora))
+				.toList();
+
+		List<SesionPropuestaDTO> sesiones = new ArrayList<>();
+		long programados = 0;
+		long ocupados = 0;
+		long abiertos = 0;
+		for (ResultadoSala resultado : resultados) {
+			sesiones.addAll(resultado.sesiones);
+			programados += resultado.minutosProgramados;
+			ocupados += resultado.minutosOcupados + resultado.minutosProgramados;
+			abiertos += resultado.minutosAbiertos;
+		}
+
+		sesiones.sort(Comparator.comparing(SesionPropuestaDTO::getFecha).thenComparingInt(SesionPropuestaDTO::getIdSala)
+				.thenComparing(SesionPropuestaDTO::getHoraInicio));
+
+		long libres = Math.max(abiertos - ocupados, 0);
+		double ocupacion = abiertos > 0 ? Math.round(Math.min(ocupados, abiertos) * 1000.0 / abiertos) / 10.0 : 0;
+		return new PropuestaHorarioDTO(sesiones, programados, libres, ocupacion);
+	}
+
+	private void validar(OptimizacionHorarioDTO peticion) {
+		if (peticion.getDias() == null || peticion.getDias().isEmpty()) {
+			throw new IllegalArgumentException("Debe indicarse al menos un día.");
+		}
+		if (peticion.getDias().size() > MAX_DIAS) {
+			throw new IllegalArgumentException("No se pueden optimizar más de " + MAX_DIAS + " días a la vez.");
+		}
+		if (peticion.getPeliculas() == null || peticion.getPeliculas().isEmpty()) {
+			throw new IllegalArgumentException("Debe indicarse al menos una película candidata.");
+		}
+		if (peticion.getApertura() == null || peticion.getCierre() == null) {
+			throw new IllegalArgumentException("Deben indicarse las horas de apertura y cierre.");
+		}
+		if (peticion.getMinutosLimpieza() < 0) {
+			throw new IllegalArgumentException("Los minutos de limpieza no pueden ser negativos.");
+		}
+		for (PeliculaCandidataDTO candidata : peticion.getPeliculas()) {
+			if (candidata.getPrioridad() < 1 || candidata.getPrioridad() > MAX_PRIORIDAD) {
+				throw new IllegalArgumentException("La prioridad debe estar entre 1 y " + MAX_PRIORIDAD + ".");
+			}
+		}
+	}
+
+	private List<Candidata> cargarCandidatas(OptimizacionHorarioDTO peticion) {
+		Set<Integer> ids = new HashSet<>();
+		for (PeliculaCandidataDTO candidata : peticion.getPeliculas()) {
+			ids.add(candidata.getIdPelicula());
+		}
+
+		Map<Integer, Pelicula> peliculas = new HashMap<>();
+		for (Pelicula pelicula : peliculaService.getPeliculasByIds(ids)) {
+			peliculas.put(pelicula.getId(), pelicula);
+		}
+
+		List<Candidata> candidatas = new ArrayList<>();
+		for (PeliculaCandidataDTO candidata : peticion.getPeliculas()) {
+			Pelicula pelicula = peliculas.get(candidata.getIdPelicula());
+			if (pelicula == null) {
+				throw new IllegalArgumentException("Película no encontrada: " + candidata.getIdPelicula());
+			}
+			if (pelicula.getDuracion() <= 0) {
+				throw new IllegalArgumentException("La película " + pelicula.getTitulo() + " no tiene duración.");
+			}
+			candidatas.add(new Candidata(pelicula.getId(), pelicula.getTitulo(), pelicula.getDuracion(),
+					candidata.getPrioridad(), peticion.getMinutosLimpieza()));
+		}
+		return candidatas;
+	}
+
+	private ResultadoSala planificarSala(Sala sala, HorarioSala horario, List<Candidata> candidatas,
+			OptimizacionHorarioDTO peticion, LocalDateTime ahora) {
+		ResultadoSala resultado = new ResultadoSala();
+		int limpieza = peticion.getMinutosLimpieza();
+
+		for (LocalDate dia : peticion.getDias()) {
+			LocalDateTime apertura = LocalDateTime.of(dia, peticion.getApertura());
+			LocalDateTime cierre = LocalDateTime.of(dia, peticion.getCierre());
+			if (!cierre.isAfter(apertura)) {
+				cierre = cierre.plusDays(1);
+			}
+			resultado.minutosAbiertos += Duration.between(apertura, cierre).toMinutes();
+
+			// Recorre los huecos entre las sesiones existentes; cada película ya incluye su limpieza posterior
+			LocalDateTime inicioHueco = apertura.isAfter(ahora) ? apertura : ahora;
+			long minutosExistentes = 0;
+			for (LocalDateTime[] ocupado : horario.getOcupados(apertura, cierre)) {
+				rellenarHueco(sala, inicioHueco, ocupado[0], candidatas, horario, resultado);
+
+				LocalDateTime desde = ocupado[0].isAfter(apertura) ? ocupado[0] : apertura;
+				LocalDateTime hasta = ocupado[1].isBefore(cierre) ? ocupado[1] : cierre;
+				minutosExistentes += Math.max(Duration.between(desde, hasta).toMinutes(), 0);
+
+				LocalDateTime trasLimpieza = ocupado[1].plusMinutes(limpieza);
+				if (trasLimpieza.isAfter(inicioHueco)) {
+					inicioHueco = trasLimpieza;
+				}
+			}
+			// Tras la última sesión no hace falta limpiar antes del cierre
+			rellenarHueco(sala, inicioHueco, cierre.plusMinutes(limpieza), candidatas, horario, resultado);
+
+			resultado.minutosOcupados += minutosExistentes;
+		}
+
+		return resultado;
+	}
+
+	private void rellenarHueco(Sala sala, LocalDateTime desde, LocalDateTime hasta,
+			List<Candidata> candidatas, HorarioSala horario, ResultadoSala resultado) {
+		// Las sesiones empiezan siempre en múltiplos de 5 minutos
+		LocalDateTime inicio = redondearArriba(desde);
+		int capacidad = hasta.isAfter(inicio) ? (int) (Duration.between(inicio, hasta).toMinutes() / MINUTOS_POR_BLOQUE)
+				: 0;
+
+		List<Candidata> elegidas = resolverMochila(capacidad, candidatas);
+		// Las de más prioridad primero, para darles la mejor hora dentro del hueco
+		elegidas.sort(Comparator.comparingInt((Candidata c) -> c.prioridad).reversed());
+
+		for (Candidata candidata : elegidas) {
+			LocalDateTime fin = inicio.plusMinutes(candidata.duracion);
+
+			// Comprobación final con la misma lógica de conflictos que al crear sesiones
+			if (horario.buscarSolapamiento(inicio, fin, 0) == 0) {
+				resultado.sesiones.add(new SesionPropuestaDTO(sala.getId(), candidata.idPelicula, candidata.titulo,
+						inicio.toLocalDate(), inicio.toLocalTime(), fin.toLocalTime()));
+				resultado.minutosProgramados += candidata.duracion;
+			}
+			inicio = inicio.plusMinutes((long) candidata.bloques * MINUTOS_POR_BLOQUE);
+		}
+	}
+
+	private static List<Candidata> resolverMochila(int capacidad, List<Candidata> candidatas) {
+		int[] bloques = new int[candidatas.size()];
+		long[] valores = new long[candidatas.size()];
+		for (int i = 0; i < candidatas.size(); i++) {
+			bloques[i] = candidatas.get(i).bloques;
+			valores[i] = candidatas.get(i).valor;
+		}
+
+		List<Candidata> elegidas = new ArrayList<>();
+		for (int i : MochilaNoAcotada.resolver(capacidad, bloques, valores)) {
+			elegidas.add(candidatas.get(i));
+		}
+		return elegidas;
+	}
+
+	private static LocalDateTime redondearArriba(LocalDateTime momento) {
+		LocalDateTime truncado = momento.withSecond(0).withNano(0);
+		if (truncado.isBefore(momento)) {
+			truncado = truncado.plusMinutes(1);
+		}
+		int resto = truncado.getMinute() % MINUTOS_POR_BLOQUE;
+		return resto == 0 ? truncado : truncado.plusMinutes(MINUTOS_POR_BLOQUE - resto);
+	}
+
+	private static class Candidata {
+		private final int idPelicula;
+		private final String titulo;
+		private final int duracion;
+		private final int prioridad;
+		// Duración más limpieza, en bloques de 5 minutos
+		private final int bloques;
+		private final long valor;
+
+		private Candidata(int idPelicula, String titulo, int duracion, int prioridad, int limpieza) {
+			this.idPelicula = idPelicula;
+			this.titulo = titulo;
+			this.duracion = duracion;
+			this.prioridad = prioridad;
+			this.bloques = (duracion + limpieza + MINUTOS_POR_BLOQUE - 1) / MINUTOS_POR_BLOQUE;
+			this.valor = duracion * PESO_MINUTO + prioridad;
+		}
+	}
+
+	private static class ResultadoSala {
+		private final List<SesionPropuestaDTO> sesiones = new ArrayList<>();
+		private long minutosProgramados;
+		// Minutos de proyección de las sesiones ya existentes dentro del horario de apertura
+		private long minutosOcupados;
+		private long minutosAbiertos;
+	}
+}
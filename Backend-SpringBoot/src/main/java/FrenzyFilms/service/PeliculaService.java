@@ -3,17 +3,25 @@ package FrenzyFilms.service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.time.format.DateTimeFormatter;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import jakarta.transaction.Transactional;
+import FrenzyFilms.dto.PeliculaResumenDTO;
 import FrenzyFilms.dto.TmdbCreditsResponse;
 import FrenzyFilms.dto.TmdbMovieDetail;
 import FrenzyFilms.entity.Admin;
@@ -22,6 +30,7 @@ import FrenzyFilms.entity.Pelicula;
 import FrenzyFilms.entity.Persona;
 import FrenzyFilms.entity.Sesion;
 import FrenzyFilms.repository.PeliculaRepository;
+import FrenzyFilms.repository.SesionHistoricaRepository;
 import FrenzyFilms.security.JWTUtils;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -29,12 +38,29 @@ import jakarta.persistence.EntityNotFoundException;
 @Service
 public class PeliculaService {
 
+    private static final int MAX_PELICULAS_POR_PAGINA = 100;
+
     @Autowired
     private PeliculaRepository peliculaRepository;
 
+    @Autowired
+    private SesionHistoricaRepository sesionHistoricaRepository;
+
     @Autowired
     private TmdbService tmdbService;
 
+    @Autowired
+    private CarteleraService carteleraService;
+
+    @Autowired
+    private BusquedaPeliculasService busquedaPeliculasService;
+
+    @Autowired
+    private GeneroService generoService;
+
+    @Autowired
+    private SincronizacionCatalogoService sincronizacionCatalogoService;
+
     @Autowired
     private JWTUtils JWTUtils;
 
@@ -43,21 +69,94 @@ public class PeliculaService {
     }
 
     public List<Pelicula> getPeliculasEnCartelera() {
-        List<Pelicula> listaPeliculas = peliculaRepository.findAll();
-        List<Pelicula> cartelera = new ArrayList<>();
+        return peliculaRepository.findByEstadoNot(Estado.DESCATALOGADA);
+    }
 
-        for (Pelicula p : listaPeliculas) {
-            if (!p.getEstado().equals(Estado.DESCATALOGADA)) {
-                cartelera.add(p);
-            }
+    public List<PeliculaResumenDTO> getPaginaCartelera(Estado estado, String orden, Integer despues, int limite) {
+        if (estado == Estado.DESCATALOGADA) {
+            throw new IllegalArgumentException("La cartelera no incluye películas descatalogadas.");
         }
-        return cartelera;
+
+        Sort sort = getOrden(orden);
+        ScrollPosition posicion = getPosicion(sort, despues);
+        Limit limit = getLimite(limite);
+
+        Window<Pelicula> pagina = estado != null
+                ? peliculaRepository.findByEstado(estado, posicion, sort, limit)
+                : peliculaRepository.findByEstadoNot(Estado.DESCATALOGADA, posicion, sort, limit);
+        return pagina.getContent().stream().map(PeliculaService::toResumen).toList();
+    }
+
+    public List<PeliculaResumenDTO> getPaginaPeliculas(Estado estado, String orden, Integer despues, int limite) {
+        Persona userLogin = JWTUtils.userLogin();
+
+        if (!(userLogin instanceof Admin)) {
+            throw new AccessDeniedException("Solo los administradores pueden consultar todo el catálogo.");
+        }
+
+        Sort sort = getOrden(orden);
+        ScrollPosition posicion = getPosicion(sort, despues);
+        Limit limit = getLimite(limite);
+
+        Window<Pelicula> pagina = estado != null
+                ? peliculaRepository.findByEstado(estado, posicion, sort, limit)
+                : peliculaRepository.findAllBy(posicion, sort, limit);
+        return pagina.getContent().stream().map(PeliculaService::toResumen).toList();
+    }
+
+    // Solo campos propios de la película: no toca sus sesiones ni sus entradas
+    static PeliculaResumenDTO toResumen(Pelicula pelicula) {
+        return new PeliculaResumenDTO(pelicula.getId(), pelicula.getTitulo(), pelicula.getCartel(),
+                pelicula.getFechaEstreno(), pelicula.getEstado(), pelicula.getCalificacionTmdb());
+    }
+
+    // El id desempata películas con el mismo valor y hace que la posición de cada una sea única
+    private Sort getOrden(String orden) {
+        return switch (orden) {
+            case "fechaEstreno" -> Sort.by(Sort.Order.desc("fechaEstreno"), Sort.Order.asc("id"));
+            case "calificacionTmdb" -> Sort.by(Sort.Order.desc("calificacionTmdb"), Sort.Order.asc("id"));
+            case "titulo" -> Sort.by(Sort.Order.asc("titulo"), Sort.Order.asc("id"));
+            default -> throw new IllegalArgumentException(
+                    "Orden no válido. Valores admitidos: fechaEstreno, calificacionTmdb, titulo.");
+        };
+    }
+
+    // La página siguiente empieza tras la última película recibida, con sus valores de ordenación
+    private ScrollPosition getPosicion(Sort sort, Integer despues) {
+        if (despues == null) {
+            return ScrollPosition.keyset();
+        }
+
+        Pelicula ultima = peliculaRepository.findById(despues)
+                .orElseThrow(() -> new IllegalArgumentException("La película indicada en el cursor no existe."));
+
+        Map<String, Object> claves = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            claves.put(order.getProperty(), switch (order.getProperty()) {
+                case "fechaEstreno" -> ultima.getFechaEstreno();
+                case "calificacionTmdb" -> ultima.getCalificacionTmdb();
+                case "titulo" -> ultima.getTitulo();
+                default -> ultima.getId();
+            });
+        }
+        return ScrollPosition.forward(claves);
+    }
+
+    private Limit getLimite(int limite) {
+        if (limite < 1 || limite > MAX_PELICULAS_POR_PAGINA) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_PELICULAS_POR_PAGINA + ".");
+        }
+        return Limit.of(limite);
     }
 
     public Optional<Pelicula> getPeliculaById(int id) {
         return peliculaRepository.findById(id);
     }
 
+    public List<Pelicula> getPeliculasByIds(Collection<Integer> ids) {
+        return peliculaRepository.findAllById(ids);
+    }
+
     public Optional<Pelicula> getPeliculaByTmdbId(int tmdbId) {
         return peliculaRepository.findByTmdbId(tmdbId);
     }
@@ -84,6 +183,10 @@ public class PeliculaService {
 
         pelicula.setEstado(nuevoEstado);
         peliculaRepository.save(pelicula);
+        carteleraService.invalidar();
+        busquedaPeliculasService.indexar(pelicula);
+        generoService.actualizarPelicula(pelicula);
+        sincronizacionCatalogoService.publicar(id);
     }
 
     @Transactional
@@ -99,8 +202,13 @@ public class PeliculaService {
         if (peliculaO.isPresent()) {
             Pelicula pelicula = peliculaO.get();
 
-            if (pelicula.getSesiones().isEmpty()) {
+            // Las sesiones archivadas también cuentan: el histórico sigue apuntando a la película
+            if (pelicula.getSesiones().isEmpty() && !sesionHistoricaRepository.existsByIdPelicula(id)) {
                 peliculaRepository.delete(pelicula);
+                carteleraService.invalidar();
+                busquedaPeliculasService.eliminar(id);
+                generoService.eliminarPelicula(id);
+                sincronizacionCatalogoService.publicar(id);
                 return true;
             }
         }
@@ -135,13 +243,16 @@ public class PeliculaService {
         pelicula.setDuracion(detalle.getDuracion());
 
         StringBuilder generosBuilder = new StringBuilder();
+        List<String> nombresGenero = new ArrayList<>();
         for (TmdbMovieDetail.Genre genero : detalle.getGeneros()) {
             if (generosBuilder.length() > 0) {
                 generosBuilder.append(", ");
             }
             generosBuilder.append(genero.getName());
+            nombresGenero.add(genero.getName());
         }
         pelicula.setGenero(generosBuilder.toString());
+        pelicula.setGeneros(generoService.getOrCreate(nombresGenero));
 
         pelicula.setSinopsis(detalle.getOverview());
         pelicula.setCartel("https://image.tmdb.org/t/p/w500" + detalle.getCartel());
@@ -188,6 +299,12 @@ public class PeliculaService {
             throw new RuntimeException("Error al generar JSON de actores", e);
         }
 
-        return peliculaRepository.save(pelicula);
+        Pelicula guardada = peliculaRepository.save(pelicula);
+        carteleraService.invalidar();
+        busquedaPeliculasService.indexar(guardada);
+        generoService.actualizarPelicula(guardada);
+        sincronizacionCatalogoService.publicar(guardada.getId());
+
+        return guardada;
     }
 }
@@ -0,0 +1,234 @@
+package FrenzyFilms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.dto.InformeProgramacionDTO;
+import FrenzyFilms.dto.PlantillaSesionesDTO;
+import FrenzyFilms.dto.ResultadoSesionDTO;
+import FrenzyFilms.dto.SesionPlantillaDTO;
+import FrenzyFilms.entity.Admin;
+import FrenzyFilms.entity.Formato;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.entity.Persona;
+import FrenzyFilms.entity.Sala;
+import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.repository.SesionRepository;
+import FrenzyFilms.security.JWTUtils;
+import jakarta.transaction.Transactional;
+
+/**
+ * Programación de sesiones en bloque.
+ *
+ * Películas y salas se cargan una sola vez, los conflictos se comprueban en
+ * memoria contra el horario de cada sala (incluidas las sesiones aceptadas
+ * dentro del mismo lote) y todas las sesiones se insertan en una única
+ * transacción. Las sesiones rechazadas no impiden crear las demás.
+ */
+@Service
+public class PlanificacionSesionesService {
+
+	private static final int MAX_SESIONES_POR_LOTE = 2000;
+
+	@Autowired
+	private SesionRepository sesionRepository;
+
+	@Autowired
+	private PeliculaService peliculaService;
+
+	@Autowired
+	private SalaService salaService;
+
+	@Autowired
+	private HorarioSalaService horarioSalaService;
+
+	@Autowired
+	private ColaEsperaService colaEsperaService;
+
+	@Autowired
+	private ProgramacionService programacionService;
+
+	@Autowired
+	private CarteleraService carteleraService;
+
+	@Autowired
+	private JWTUtils JWTUtils;
+
+	@Transactional
+	public InformeProgramacionDTO programarPlantilla(PlantillaSesionesDTO plantilla) {
+		comprobarAdmin();
+
+		if (plantilla.getDias() == null || plantilla.getDias().isEmpty() || plantilla.getSesiones() == null
+				|| plantilla.getSesiones().isEmpty()) {
+			throw new IllegalArgumentException("La plantilla debe indicar al menos un día y una sesión.");
+		}
+
+		List<Sesion> sesiones = new ArrayList<>();
+		List<int[]> destinos = new ArrayList<>();
+
+		for (LocalDate dia : plantilla.getDias()) {
+			for (SesionPlantillaDTO item : plantilla.getSesiones()) {
+				if (item.getHorasInicio() == null) {
+					continue;
+				}
+				for (LocalTime hora : item.getHorasInicio()) {
+					sesiones.add(nuevaSesion(dia, hora, item.getFormato(), item.getPrecioEntrada()));
+					destinos.add(new int[] { item.getIdPelicula(), item.getIdSala() });
+				}
+			}
+		}
+
+		return programar(sesiones, destinos);
+	}
+
+	// Copia a la semana siguiente las sesiones de los siete días que empiezan en la fecha indicada
+	@Transactional
+	public InformeProgramacionDTO copiarSemana(LocalDate desde) {
+		comprobarAdmin();
+
+		List<Sesion> sesiones = new ArrayList<>();
+		List<int[]> destinos = new ArrayList<>();
+
+		for (Object[] fila : sesionRepository.findProgramacionEntre(desde, desde.plusDays(6))) {
+			LocalDate fecha = HorarioSalaService.toLocalDate(fila[2]).plusWeeks(1);
+			LocalTime hora = HorarioSalaService.toLocalTime(fila[3]);
+			Formato formato = fila[4] != null ? Formato.values()[((Number) fila[4]).intValue()] : null;
+
+			sesiones.add(nuevaSesion(fecha, hora, formato, ((Number) fila[5]).doubleValue()));
+			destinos.add(new int[] { ((Number) fila[0]).intValue(), ((Number) fila[1]).intValue() });
+		}
+
+		return programar(sesiones, destinos);
+	}
+
+	private InformeProgramacionDTO programar(List<Sesion> sesiones, List<int[]> destinos) {
+		if (sesiones.size() > MAX_SESIONES_POR_LOTE) {
+			throw new IllegalArgumentException(
+					"No se pueden programar más de " + MAX_SESIONES_POR_LOTE + " sesiones a la vez.");
+		}
+
+		Set<Integer> idsPeliculas = new HashSet<>();
+		Set<Integer> idsSalas = new HashSet<>();
+		for (int[] destino : destinos) {
+			idsPeliculas.add(destino[0]);
+			idsSalas.add(destino[1]);
+		}
+
+		Map<Integer, Pelicula> peliculas = new HashMap<>();
+		for (Pelicula pelicula : peliculaService.getPeliculasByIds(idsPeliculas)) {
+			peliculas.put(pelicula.getId(), pelicula);
+		}
+		Map<Integer, Sala> salas = new HashMap<>();
+		for (Sala sala : salaService.getSalasByIds(idsSalas)) {
+			salas.put(sala.getId(), sala);
+		}
+
+		// Copias del horario de cada sala, a las que se añaden las sesiones aceptadas del lote
+		Map<Integer, HorarioSala> horarios = new HashMap<>();
+		LocalDateTime ahora = LocalDateTime.now();
+
+		List<ResultadoSesionDTO> resultados = new ArrayList<>();
+		List<Sesion> aceptadas = new ArrayList<>();
+		List<ResultadoSesionDTO> resultadosAceptadas = new ArrayList<>();
+		List<int[]> destinosAceptadas = new ArrayList<>();
+
+		for (int i = 0; i < sesiones.size(); i++) {
+			Sesion sesion = sesiones.get(i);
+			Pelicula pelicula = peliculas.get(destinos.get(i)[0]);
+			Sala sala = salas.get(destinos.get(i)[1]);
+			ResultadoSesionDTO resultado = new ResultadoSesionDTO(destinos.get(i)[0], destinos.get(i)[1],
+					sesion.getFecha(), sesion.getHoraInicio(), false, null, null);
+			resultados.add(resultado);
+
+			String motivo = null;
+			if (pelicula == null) {
+				motivo = "Película no encontrada.";
+			} else if (sala == null) {
+				motivo = "Sala no encontrada.";
+			} else if (sesion.getFecha() == null || sesion.getHoraInicio() == null) {
+				motivo = "Faltan la fecha o la hora de inicio.";
+			} else if (sesion.getPrecioEntrada() < 0) {
+				motivo = "El precio de la entrada no puede ser negativo.";
+			}
+
+			if (motivo == null) {
+				LocalDateTime inicio = LocalDateTime.of(sesion.getFecha(), sesion.getHoraInicio());
+				LocalDateTime fin = inicio.plusMinutes(pelicula.getDuracion());
+				HorarioSala horario = horarios.computeIfAbsent(sala.getId(), horarioSalaService::cargarHorario);
+
+				if (!inicio.isAfter(ahora)) {
+					motivo = "La fecha de inicio debe ser futura.";
+				} else if (horario.buscarSolapamiento(inicio, fin, 0) != 0) {
+					motivo = "Conflicto de horario con otra sesión en la sala.";
+				} else {
+					// Índice negativo provisional hasta conocer el id real
+					horario.añadir(-(i + 1), inicio, fin);
+					sesion.setAsientosDisponibles(sala.getNumAsientosTotal());
+					aceptadas.add(sesion);
+					resultadosAceptadas.add(resultado);
+					destinosAceptadas.add(destinos.get(i));
+				}
+			}
+
+			resultado.setMotivo(motivo);
+		}
+
+		List<Sesion> guardadas = sesionRepository.saveAll(aceptadas);
+
+		// Película y sala se asignan con una actualización por cada par, sin tocar sus colecciones
+		Map<Integer, Map<Integer, List<Integer>>> idsPorDestino = new LinkedHashMap<>();
+		for (int i = 0; i < guardadas.size(); i++) {
+			Sesion guardada = guardadas.get(i);
+			int[] destino = destinosAceptadas.get(i);
+			idsPorDestino.computeIfAbsent(destino[0], k -> new LinkedHashMap<>())
+					.computeIfAbsent(destino[1], k -> new ArrayList<>()).add(guardada.getId());
+
+			resultadosAceptadas.get(i).setCreada(true);
+			resultadosAceptadas.get(i).setIdSesion(guardada.getId());
+			colaEsperaService.sesionCreada(peliculas.get(destino[0]), guardada.getId());
+			programacionService.invalidar(guardada.getFecha());
+		}
+
+		Set<Integer> salasModificadas = new HashSet<>();
+		idsPorDestino.forEach((idPelicula, porSala) -> porSala.forEach((idSala, ids) -> {
+			sesionRepository.asignarPeliculaYSala(ids, idPelicula, idSala);
+			salasModificadas.add(idSala);
+		}));
+		salasModificadas.forEach(horarioSalaService::invalidar);
+		if (!guardadas.isEmpty()) {
+			carteleraService.invalidar();
+		}
+
+		return new InformeProgramacionDTO(guardadas.size(), sesiones.size() - guardadas.size(), resultados);
+	}
+
+	private Sesion nuevaSesion(LocalDate fecha, LocalTime hora, Formato formato, double precioEntrada) {
+		Sesion sesion = new Sesion();
+		sesion.setFecha(fecha);
+		sesion.setHoraInicio(hora);
+		sesion.setFormato(formato);
+		sesion.setPrecioEntrada(precioEntrada);
+		sesion.setEntradas(new HashSet<>());
+		return sesion;
+	}
+
+	private void comprobarAdmin() {
+		Persona userLogin = JWTUtils.userLogin();
+
+		if (!(userLogin instanceof Admin)) {
+			throw new AccessDeniedException("Solo los administradores pueden crear sesiones.");
+		}
+	}
+}
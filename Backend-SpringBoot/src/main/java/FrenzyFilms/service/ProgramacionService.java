@@ -0,0 +1,184 @@
+package FrenzyFilms.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.dto.ProgramacionDiaDTO;
+import FrenzyFilms.dto.ProgramacionPeliculaDTO;
+import FrenzyFilms.dto.ProgramacionSalaDTO;
+import FrenzyFilms.dto.SesionProgramadaDTO;
+import FrenzyFilms.entity.Formato;
+import FrenzyFilms.repository.SesionRepository;
+
+/**
+ * Programación de un día en todas las salas, agrupada por película y sala.
+ *
+ * Se construye con una única consulta y se guarda en caché por fecha. Los
+ * cambios en sesiones invalidan solo la fecha afectada; las compras y
+ * cancelaciones corrigen en la caché los asientos libres de su sesión. Las
+ * retenciones se descuentan al responder, igual que en DisponibilidadService,
+ * porque cambian continuamente. Solo se guardan en caché los días desde hoy
+ * hasta el máximo configurado, para que consultas de fechas arbitrarias no la
+ * llenen.
+ */
+@Service
+public class ProgramacionService {
+
+	@Autowired
+	private SesionRepository sesionRepository;
+
+	@Autowired
+	private RetencionService retencionService;
+
+	@Value("${frenzyfilms.programacion.dias-en-cache:30}")
+	private int diasEnCache;
+
+	private final Map<LocalDate, ProgramacionEnCache> programaciones = new ConcurrentHashMap<>();
+
+	// Cambios confirmados por fecha, más los que afectan a todas: una carga anterior a un cambio no se guarda
+	private final Map<LocalDate, Long> generaciones = new ConcurrentHashMap<>();
+	private final AtomicLong generacionGlobal = new AtomicLong();
+
+	public ProgramacionDiaDTO getProgramacion(LocalDate fecha) {
+		LocalDate hoy = LocalDate.now();
+
+		if (fecha.isBefore(hoy) || fecha.isAfter(hoy.plusDays(diasEnCache))) {
+			return conRetenciones(cargarProgramacion(fecha));
+		}
+
+		ProgramacionEnCache programacion = programaciones.get(fecha);
+		if (programacion == null) {
+			// La consulta se hace fuera de compute, para no bloquear las demás fechas mientras dura
+			long inicio = getGeneracion(fecha);
+			ProgramacionEnCache nueva = cargarProgramacion(fecha);
+
+			ProgramacionEnCache guardada = programaciones.compute(fecha, (f, actual) -> {
+				if (actual != null) {
+					return actual;
+				}
+				return getGeneracion(f) == inicio ? nueva : null;
+			});
+			programacion = guardada != null ? guardada : nueva;
+		}
+
+		return conRetenciones(programacion);
+	}
+
+	public void invalidar(LocalDate fecha) {
+		if (fecha != null) {
+			TransaccionUtils.despuesDeConfirmar(() -> programaciones.compute(fecha, (f, programacion) -> {
+				generaciones.merge(f, 1L, Long::sum);
+				return null;
+			}));
+		}
+	}
+
+	public void invalidarTodo() {
+		TransaccionUtils.despuesDeConfirmar(() -> {
+			generacionGlobal.incrementAndGet();
+			programaciones.clear();
+		});
+	}
+
+	// Compras (cambio negativo) y cancelaciones: se corrige la sesión sin volver a cargar el día
+	public void actualizarAsientosDisponibles(LocalDate fecha, int idSesion, int cambio) {
+		TransaccionUtils.despuesDeConfirmar(() -> programaciones.compute(fecha, (f, programacion) -> {
+			generaciones.merge(f, 1L, Long::sum);
+			if (programacion != null) {
+				programacion.disponibles.computeIfPresent(idSesion, (id, libres) -> libres + cambio);
+			}
+			return programacion;
+		}));
+	}
+
+	@Scheduled(cron = "0 0 0 * * *")
+	public void eliminarDiasPasados() {
+		LocalDate hoy = LocalDate.now();
+		programaciones.keySet().removeIf(fecha -> fecha.isBefore(hoy));
+		generaciones.keySet().removeIf(fecha -> fecha.isBefore(hoy));
+	}
+
+	private long getGeneracion(LocalDate fecha) {
+		return generacionGlobal.get() + generaciones.getOrDefault(fecha, 0L);
+	}
+
+	private ProgramacionEnCache cargarProgramacion(LocalDate fecha) {
+		List<ProgramacionPeliculaDTO> peliculas = new ArrayList<>();
+		Map<Integer, Integer> disponibles = new ConcurrentHashMap<>();
+		ProgramacionPeliculaDTO pelicula = null;
+		ProgramacionSalaDTO sala = null;
+
+		// Las filas llegan ordenadas por película y sala: basta con detectar cuándo cambian
+		for (Object[] fila : sesionRepository.findProgramacionByFecha(fecha)) {
+			int idPelicula = ((Number) fila[0]).intValue();
+			int idSala = ((Number) fila[5]).intValue();
+			int idSesion = ((Number) fila[7]).intValue();
+
+			if (pelicula == null || pelicula.getIdPelicula() != idPelicula) {
+				pelicula = new ProgramacionPeliculaDTO(idPelicula, (String) fila[1], (String) fila[2],
+						((Number) fila[3]).intValue(), (String) fila[4], new ArrayList<>());
+				peliculas.add(pelicula);
+				sala = null;
+			}
+
+			if (sala == null || sala.getIdSala() != idSala) {
+				sala = new ProgramacionSalaDTO(idSala, ((Number) fila[6]).intValue(), new ArrayList<>());
+				pelicula.getSalas().add(sala);
+			}
+
+			Formato formato = fila[9] != null ? Formato.values()[((Number) fila[9]).intValue()] : null;
+			disponibles.put(idSesion, ((Number) fila[11]).intValue());
+
+			sala.getSesiones().add(new SesionProgramadaDTO(idSesion, HorarioSalaService.toLocalTime(fila[8]),
+					formato, ((Number) fila[10]).doubleValue(), 0));
+		}
+
+		return new ProgramacionEnCache(new ProgramacionDiaDTO(fecha, peliculas), disponibles);
+	}
+
+	// Copia para la respuesta, con los asientos libres del momento; la de la caché no sale de aquí
+	private ProgramacionDiaDTO conRetenciones(ProgramacionEnCache programacion) {
+		List<ProgramacionPeliculaDTO> peliculas = new ArrayList<>();
+
+		for (ProgramacionPeliculaDTO pelicula : programacion.dia.getPeliculas()) {
+			List<ProgramacionSalaDTO> salas = new ArrayList<>();
+
+			for (ProgramacionSalaDTO sala : pelicula.getSalas()) {
+				List<SesionProgramadaDTO> sesiones = new ArrayList<>();
+
+				for (SesionProgramadaDTO sesion : sala.getSesiones()) {
+					int idSesion = sesion.getIdSesion();
+					int libres = programacion.disponibles.getOrDefault(idSesion, 0)
+							- retencionService.getNumRetenidos(idSesion);
+					sesiones.add(new SesionProgramadaDTO(idSesion, sesion.getHoraInicio(), sesion.getFormato(),
+							sesion.getPrecioEntrada(), Math.max(libres, 0)));
+				}
+				salas.add(new ProgramacionSalaDTO(sala.getIdSala(), sala.getNumSala(), sesiones));
+			}
+			peliculas.add(new ProgramacionPeliculaDTO(pelicula.getIdPelicula(), pelicula.getTitulo(),
+					pelicula.getCartel(), pelicula.getDuracion(), pelicula.getClasificacionEdad(), salas));
+		}
+
+		return new ProgramacionDiaDTO(programacion.dia.getFecha(), peliculas);
+	}
+
+	private static class ProgramacionEnCache {
+		private final ProgramacionDiaDTO dia;
+		// idSesion -> asientos libres sin descontar retenciones
+		private final Map<Integer, Integer> disponibles;
+
+		private ProgramacionEnCache(ProgramacionDiaDTO dia, Map<Integer, Integer> disponibles) {
+			this.dia = dia;
+			this.disponibles = disponibles;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package FrenzyFilms.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import FrenzyFilms.dto.RetencionDTO;
+import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.repository.EntradaRepository;
+
+@Service
+public class RetencionService {
+
+	@Autowired
+	private OcupacionService ocupacionService;
+
+	@Autowired
+	private EntradaRepository entradaRepository;
+
+	@Autowired
+	private BloqueoSesiones bloqueoSesiones;
+
+	@Value("${frenzyfilms.retencion.ttl-segundos:300}")
+	private long ttlSegundos;
+
+	// idSesion -> (asiento -> retención); el mapa de una sesión se retira cuando se queda vacío
+	private final Map<Integer, Map<Integer, Retencion>> retenciones = new ConcurrentHashMap<>();
+
+	private final RuedaTemporal<Retencion> rueda = new RuedaTemporal<>(1000, 512, System.currentTimeMillis());
+
+	// Con el cerrojo de la sesión que toman las compras: mientras se comprueba y se retiene, nadie vende
+	// el asiento ni retiene otro. Lo único que puede pasar a la vez es que se liberen retenciones.
+	public RetencionDTO retener(Sesion sesion, int numFila, int numAsiento, int idUsuario) {
+		int idSesion = sesion.getId();
+
+		return bloqueoSesiones.ejecutar(idSesion, () -> {
+			if (ocupacionService.getOcupacion(sesion).estaOcupado(numFila, numAsiento)) {
+				throw new IllegalArgumentException("El asiento ya está ocupado.");
+			}
+
+			Retencion actual = getRetencionVigente(idSesion, numFila, numAsiento);
+			if (actual != null && actual.idUsuario != idUsuario) {
+				throw new IllegalStateException("El asiento está retenido temporalmente por otro usuario.");
+			}
+
+			long ahora = System.currentTimeMillis();
+			int claveAsiento = clave(numFila, numAsiento);
+			int numEntradas = entradaRepository.countByUsuarioAndSesion(idUsuario, idSesion);
+
+			if (numEntradas + contarRetenidosPor(idSesion, idUsuario, claveAsiento, ahora)
+					>= EntradaService.MAX_ENTRADAS_POR_SESION) {
+				throw new IllegalStateException("No puedes retener ni comprar más de "
+						+ EntradaService.MAX_ENTRADAS_POR_SESION + " asientos para una misma sesión.");
+			}
+
+			Retencion nueva = new Retencion(idSesion, numFila, numAsiento, idUsuario, ahora + ttlSegundos * 1000);
+			retenciones.compute(idSesion, (k, asientos) -> {
+				Map<Integer, Retencion> mapa = asientos != null ? asientos : new ConcurrentHashMap<>();
+				mapa.put(claveAsiento, nueva);
+				return mapa;
+			});
+
+			rueda.programar(nueva, nueva.expiraEn);
+			return toDTO(nueva);
+		});
+	}
+
+	public void liberar(int idSesion, int numFila, int numAsiento, int idUsuario) {
+		retirar(idSesion, asientos -> asientos.computeIfPresent(clave(numFila, numAsiento),
+				(k, actual) -> actual.idUsuario == idUsuario ? null : actual));
+	}
+
+	// Libera la retención del comprador una vez confirmada la compra
+	public void liberarTrasCompra(int idSesion, int numFila, int numAsiento, int idUsuario) {
+		TransaccionUtils.despuesDeConfirmar(() -> liberar(idSesion, numFila, numAsiento, idUsuario));
+	}
+
+	public boolean estaRetenidoPorOtro(int idSesion, int numFila, int numAsiento, int idUsuario) {
+		Retencion retencion = getRetencionVigente(idSesion, numFila, numAsiento);
+		return retencion != null && retencion.idUsuario != idUsuario;
+	}
+
+	public boolean estaRetenidoPor(int idSesion, int numFila, int numAsiento, int idUsuario) {
+		Retencion retencion = getRetencionVigente(idSesion, numFila, numAsiento);
+		return retencion != null && retencion.idUsuario == idUsuario;
+	}
+
+	public boolean estaRetenido(int idSesion, int numFila, int numAsiento) {
+		return getRetencionVigente(idSesion, numFila, numAsiento) != null;
+	}
+
+	// Solo cuentan las vigentes: las vencidas pueden seguir en el mapa hasta que la rueda las retire
+	public int getNumRetenidos(int idSesion) {
+		Map<Integer, Retencion> asientos = retenciones.get(idSesion);
+		if (asientos == null) {
+			return 0;
+		}
+
+		long ahora = System.currentTimeMillis();
+		int vigentes = 0;
+		for (Retencion retencion : asientos.values()) {
+			if (!retencion.haVencido(ahora)) {
+				vigentes++;
+			}
+		}
+		return vigentes;
+	}
+
+	// Mismo formato que OcupacionSesion.getMapaCodificado()
+	public String getMapaCodificado(int idSesion, int numFilas, int numColumnas) {
+		byte[] bytes = new byte[(numFilas * numColumnas + 7) / 8];
+		Map<Integer, Retencion> asientos = retenciones.get(idSesion);
+
+		if (asientos != null) {
+			long ahora = System.currentTimeMillis();
+			for (Retencion retencion : asientos.values()) {
+				if (!retencion.haVencido(ahora) && retencion.numFila <= numFilas
+						&& retencion.numAsiento <= numColumnas) {
+					int indice = (retencion.numFila - 1) * numColumnas + (retencion.numAsiento - 1);
+					bytes[indice >>> 3] |= (byte) (1 << (indice & 7));
+				}
+			}
+		}
+
+		return Base64.getEncoder().encodeToString(bytes);
+	}
+
+	public void eliminarRetencionesDeSesion(int idSesion) {
+		retenciones.remove(idSesion);
+	}
+
+	@Scheduled(fixedRate = 1000)
+	public void caducarRetenciones() {
+		rueda.avanzar(System.currentTimeMillis(), retencion -> retirar(retencion.idSesion,
+				asientos -> asientos.remove(clave(retencion.numFila, retencion.numAsiento), retencion)));
+	}
+
+	// Las altas y bajas pasan por el mapa de sesiones, así un alta no puede caer en un mapa que se acaba de retirar
+	private void retirar(int idSesion, Consumer<Map<Integer, Retencion>> baja) {
+		retenciones.computeIfPresent(idSesion, (k, asientos) -> {
+			baja.accept(asientos);
+			return asientos.isEmpty() ? null : asientos;
+		});
+	}
+
+	private Retencion getRetencionVigente(int idSesion, int numFila, int numAsiento) {
+		Map<Integer, Retencion> asientos = retenciones.get(idSesion);
+		if (asientos == null) {
+			return null;
+		}
+
+		Retencion retencion = asientos.get(clave(numFila, numAsiento));
+		if (retencion == null || retencion.haVencido(System.currentTimeMillis())) {
+			return null;
+		}
+		return retencion;
+	}
+
+	// Retenciones vigentes del usuario en la sesión, sin contar el asiento que se vuelve a retener
+	private int contarRetenidosPor(int idSesion, int idUsuario, int claveExcluida, long ahora) {
+		Map<Integer, Retencion> asientos = retenciones.get(idSesion);
+		if (asientos == null) {
+			return 0;
+		}
+
+		int retenidos = 0;
+		for (Map.Entry<Integer, Retencion> entrada : asientos.entrySet()) {
+			Retencion retencion = entrada.getValue();
+			if (retencion.idUsuario == idUsuario && !retencion.haVencido(ahora) && entrada.getKey() != claveExcluida) {
+				retenidos++;
+			}
+		}
+		return retenidos;
+	}
+
+	private static int clave(int numFila, int numAsiento) {
+		return (numFila << 16) | numAsiento;
+	}
+
+	private static RetencionDTO toDTO(Retencion retencion) {
+		LocalDateTime expira = LocalDateTime.ofInstant(Instant.ofEpochMilli(retencion.expiraEn),
+				ZoneId.systemDefault());
+		return new RetencionDTO(retencion.idSesion, retencion.numFila, retencion.numAsiento, expira);
+	}
+
+	private static class Retencion {
+		private final int idSesion;
+		private final int numFila;
+		private final int numAsiento;
+		private final int idUsuario;
+		private final long expiraEn;
+
+		private Retencion(int idSesion, int numFila, int numAsiento, int idUsuario, long expiraEn) {
+			this.idSesion = idSesion;
+			this.numFila = numFila;
+			this.numAsiento = numAsiento;
+			this.idUsuario = idUsuario;
+			this.expiraEn = expiraEn;
+		}
+
+		private boolean haVencido(long ahora) {
+			return expiraEn <= ahora;
+		}
+	}
+}
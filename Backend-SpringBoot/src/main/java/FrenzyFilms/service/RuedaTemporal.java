@@ -0,0 +1,88 @@
+package FrenzyFilms.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Rueda temporal (timing wheel) para caducar elementos sin recorrerlos todos.
+ *
+ * Cada ranura agrupa los elementos que vencen en un mismo tick. Al avanzar solo
+ * se revisa la ranura del tick actual; los elementos que vencen en vueltas
+ * posteriores de la rueda se quedan en su ranura hasta que les toque.
+ *
+ * Programar y procesar un tick se excluyen mutuamente: un elemento añadido a la
+ * ranura que se está procesando no puede quedarse atrás hasta la vuelta siguiente.
+ */
+public class RuedaTemporal<T> {
+
+	private final long duracionTick;
+	private final long inicio;
+	private final List<Queue<Tarea<T>>> ranuras;
+	private final AtomicLong tickActual = new AtomicLong();
+	// Varias altas a la vez (las colas son concurrentes), pero ninguna mientras se procesa un tick
+	private final ReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+	public RuedaTemporal(long duracionTickMillis, int numRanuras, long ahora) {
+		this.duracionTick = duracionTickMillis;
+		this.inicio = ahora;
+		this.ranuras = new ArrayList<>(numRanuras);
+		for (int i = 0; i < numRanuras; i++) {
+			ranuras.add(new ConcurrentLinkedQueue<>());
+		}
+	}
+
+	public void programar(T elemento, long expiraEn) {
+		cerrojo.readLock().lock();
+		try {
+			long tick = Math.max((expiraEn - inicio + duracionTick - 1) / duracionTick, tickActual.get());
+			ranuras.get((int) (tick % ranuras.size())).add(new Tarea<>(elemento, tick));
+		} finally {
+			cerrojo.readLock().unlock();
+		}
+	}
+
+	// Procesa todos los ticks vencidos hasta el instante indicado
+	public void avanzar(long ahora, Consumer<T> alVencer) {
+		long objetivo = (ahora - inicio) / duracionTick;
+
+		while (tickActual.get() <= objetivo) {
+			List<T> vencidos = new ArrayList<>();
+
+			cerrojo.writeLock().lock();
+			try {
+				long tick = tickActual.get();
+				Iterator<Tarea<T>> it = ranuras.get((int) (tick % ranuras.size())).iterator();
+
+				while (it.hasNext()) {
+					Tarea<T> tarea = it.next();
+					if (tarea.tick <= tick) {
+						it.remove();
+						vencidos.add(tarea.elemento);
+					}
+				}
+				tickActual.incrementAndGet();
+			} finally {
+				cerrojo.writeLock().unlock();
+			}
+
+			vencidos.forEach(alVencer);
+		}
+	}
+
+	private static class Tarea<T> {
+		private final T elemento;
+		private final long tick;
+
+		private Tarea(T elemento, long tick) {
+			this.elemento = elemento;
+			this.tick = tick;
+		}
+	}
+}
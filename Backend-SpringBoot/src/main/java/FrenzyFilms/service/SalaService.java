@@ -1,5 +1,6 @@
 package FrenzyFilms.service;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +35,10 @@ public class SalaService {
 		return salaRepository.findById(id);
 	}
 
+	public List<Sala> getSalasByIds(Collection<Integer> ids) {
+		return salaRepository.findAllById(ids);
+	}
+
 	public Optional<Sala> getSalaByNumSala(int numSala) {
 		return salaRepository.findByNumSala(numSala);
 	}
@@ -1,7 +1,10 @@
 package FrenzyFilms.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -11,18 +14,22 @@ import org.springframework.stereotype.Service;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import FrenzyFilms.dto.SesionDetalleDTO;
 import FrenzyFilms.entity.Admin;
 import FrenzyFilms.entity.Entrada;
 import FrenzyFilms.entity.Sesion;
 import FrenzyFilms.entity.Persona;
 import FrenzyFilms.entity.Sala;
-import FrenzyFilms.entity.Usuario;
 import FrenzyFilms.entity.Pelicula;
 import FrenzyFilms.repository.SesionRepository;
 import FrenzyFilms.security.JWTUtils;
 
 @Service
 public class SesionService {
+
+	private static final int MAX_SESIONES_POR_PAGINA = 200;
+	private static final int SESIONES_POR_PAGINA = 50;
+
 	@Autowired
 	private SesionRepository sesionRepository;
 
@@ -38,6 +45,27 @@ public class SesionService {
 	@Autowired
 	private CorreoService correoService;
 
+	@Autowired
+	private ColaEsperaService colaEsperaService;
+
+	@Autowired
+	private HorarioSalaService horarioSalaService;
+
+	@Autowired
+	private ProgramacionService programacionService;
+
+	@Autowired
+	private CarteleraService carteleraService;
+
+	@Autowired
+	private OcupacionService ocupacionService;
+
+	@Autowired
+	private RetencionService retencionService;
+
+	@Autowired
+	private EventosAsientosService eventosAsientosService;
+
 	@Autowired
 	private JWTUtils JWTUtils;
 
@@ -69,17 +97,50 @@ public class SesionService {
 		return pelicula.getSesiones();
 	}
 
-	public Set<Sesion> getSesionesFuturas(Set<Sesion> sesiones) {
-		Set<Sesion> futuras = new HashSet<>();
-		LocalDateTime ahora = LocalDateTime.now();
+	// Sin 'despues' ni 'limite' se devuelven todas, como antes de paginar
+	public List<Sesion> getSesionesFuturasByPelicula(int idPelicula, Integer despues, Integer limite) {
+		int tamaño = getTamañoPagina(despues, limite);
+		Object[] cursor = getCursorSesionesFuturas(despues);
+		return sesionRepository.findSiguientesByPelicula(idPelicula, (LocalDate) cursor[0], (LocalTime) cursor[1],
+				(Integer) cursor[2], tamaño);
+	}
+
+	public List<Sesion> getSesionesFuturasBySala(int idSala, Integer despues, Integer limite) {
+		int tamaño = getTamañoPagina(despues, limite);
+		Object[] cursor = getCursorSesionesFuturas(despues);
+		return sesionRepository.findSiguientesBySala(idSala, (LocalDate) cursor[0], (LocalTime) cursor[1],
+				(Integer) cursor[2], tamaño);
+	}
+
+	private int getTamañoPagina(Integer despues, Integer limite) {
+		if (despues == null && limite == null) {
+			return Integer.MAX_VALUE;
+		}
+
+		int tamaño = limite != null ? limite : SESIONES_POR_PAGINA;
+		if (tamaño < 1 || tamaño > MAX_SESIONES_POR_PAGINA) {
+			throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_SESIONES_POR_PAGINA + ".");
+		}
+		return tamaño;
+	}
 
-		for (Sesion sesion : sesiones) {
-			LocalDateTime inicio = getInicioSesion(sesion);
-			if (inicio.isAfter(ahora)) {
-				futuras.add(sesion);
+	// Devuelve {fecha, hora, id} a partir del cual listar: ahora, o la última sesión recibida si es posterior
+	private Object[] getCursorSesionesFuturas(Integer despues) {
+
+		LocalDateTime ahora = LocalDateTime.now().withNano(0);
+		// Con el id máximo, la comparación por tuplas deja fuera las sesiones que empiezan justo ahora
+		Object[] cursor = { ahora.toLocalDate(), ahora.toLocalTime(), Integer.MAX_VALUE };
+
+		if (despues != null) {
+			Sesion ultima = sesionRepository.findById(despues)
+					.orElseThrow(() -> new IllegalArgumentException("La sesión indicada en el cursor no existe."));
+
+			if (getInicioSesion(ultima).isAfter(ahora)) {
+				cursor = new Object[] { ultima.getFecha(), ultima.getHoraInicio(), ultima.getId() };
 			}
 		}
-		return futuras;
+
+		return cursor;
 	}
 
 	@Transactional
@@ -87,6 +148,15 @@ public class SesionService {
 		return sesionRepository.findById(id);
 	}
 
+	public Optional<SesionDetalleDTO> getSesionDetalle(int id) {
+		Optional<SesionDetalleDTO> detalleO = sesionRepository.findDetalleById(id);
+
+		detalleO.ifPresent(detalle -> detalle.setAsientosDisponibles(
+				Math.max(detalle.getAsientosDisponibles() - retencionService.getNumRetenidos(id), 0)));
+
+		return detalleO;
+	}
+
 	public LocalDateTime getInicioSesion(Sesion sesion) {
 		return LocalDateTime.of(sesion.getFecha(), sesion.getHoraInicio());
 	}
@@ -99,18 +169,23 @@ public class SesionService {
 	}
 
 	public int getNumAsientosDisponibles(Sesion sesion) {
-		Optional<Sala> salaO = salaService.findBySesion(sesion);
+		int disponibles = getNumAsientosLibres(sesion) - retencionService.getNumRetenidos(sesion.getId());
 
-		if (salaO.isPresent()) {
-			Sala sala = salaO.get();
-			int total = sala.getNumAsientosTotal();
-			int ocupados = sesion.getEntradas().size();
-			int disponibles = total - ocupados;
+		return Math.max(disponibles, 0);
+	}
 
-			return Math.max(disponibles, 0);
+	// Asientos sin vender, sin descontar las retenciones temporales
+	public int getNumAsientosLibres(Sesion sesion) {
+		if (sesion.getAsientosDisponibles() != null) {
+			return sesion.getAsientosDisponibles();
 		}
 
-		throw new IllegalStateException("La sesión no está asociada a ninguna sala.");
+		// Sesiones anteriores al contador que aún no ha corregido la reconciliación
+		return ocupacionService.getOcupacion(sesion).getNumLibres();
+	}
+
+	public void actualizarAsientosDisponibles(Sesion sesion, int variacion) {
+		sesion.setAsientosDisponibles(Math.max(getNumAsientosLibres(sesion) + variacion, 0));
 	}
 
 	public int getDuracionSesion(Sesion sesion) {
@@ -124,19 +199,6 @@ public class SesionService {
 		throw new IllegalStateException("La sesión no está asociada a ninguna película.");
 	}
 
-	public Set<Usuario> getUsuariosConEntrada(Sesion sesion) {
-		Set<Usuario> usuarios = new HashSet<>();
-
-		for (Entrada entrada : sesion.getEntradas()) {
-			Optional<Usuario> usuarioO = usuarioService.findByEntrada(entrada);
-			if (usuarioO.isPresent()) {
-				usuarios.add(usuarioO.get());
-			}
-		}
-
-		return usuarios;
-	}
-
 	public Optional<Sesion> findByEntrada(Entrada entrada) {
 		return sesionRepository.findByEntradasContaining(entrada);
 	}
@@ -170,6 +232,7 @@ public class SesionService {
 		}
 
 		nuevaSesion.setEntradas(new HashSet<>());
+		nuevaSesion.setAsientosDisponibles(sala.getNumAsientosTotal());
 
 		Sesion guardada = sesionRepository.save(nuevaSesion);
 
@@ -179,29 +242,20 @@ public class SesionService {
 		pelicula.getSesiones().add(guardada);
 		peliculaService.savePelicula(pelicula);
 
+		horarioSalaService.invalidar(sala.getId());
+		programacionService.invalidar(guardada.getFecha());
+		carteleraService.invalidar();
+		colaEsperaService.sesionCreada(pelicula, guardada.getId());
+
 		return guardada;
 	}
 
 	public boolean hayConflictoDeHorario(Sesion nuevaSesion, Pelicula pelicula, Sala sala) {
-		Set<Sesion> sesionesExistentes = sala.getSesiones();
-
 		LocalDateTime inicioNueva = getInicioSesion(nuevaSesion);
 		LocalDateTime finNueva = inicioNueva.plusMinutes(pelicula.getDuracion());
 
-		for (Sesion sesion : sesionesExistentes) {
-			// Ignorar la misma sesión si estamos actualizando
-			if (nuevaSesion.getId() != 0 && nuevaSesion.getId() == sesion.getId()) {
-				continue;
-			}
-
-			LocalDateTime inicioExistente = getInicioSesion(sesion);
-			LocalDateTime finExistente = getFinSesion(sesion);
-
-			if (inicioNueva.isBefore(finExistente) && finNueva.isAfter(inicioExistente)) {
-				return true;
-			}
-		}
-		return false;
+		// Al actualizar, la propia sesión no cuenta como conflicto
+		return horarioSalaService.hayConflicto(sala.getId(), inicioNueva, finNueva, nuevaSesion.getId());
 	}
 
 	@Transactional
@@ -219,6 +273,7 @@ public class SesionService {
 			throw new IllegalStateException("No se puede modificar una sesión con entradas vendidas.");
 		}
 
+		LocalDate fechaAnterior = sesion.getFecha();
 		sesion.setFecha(sesionU.getFecha());
 		sesion.setHoraInicio(sesionU.getHoraInicio());
 
@@ -235,9 +290,15 @@ public class SesionService {
 			throw new IllegalStateException("Conflicto de horario con otra sesión en la sala.");
 		}
 
+		horarioSalaService.invalidar(sala.getId());
+		programacionService.invalidar(fechaAnterior);
+		programacionService.invalidar(sesion.getFecha());
+		carteleraService.invalidar();
+
 		return sesionRepository.save(sesion);
 	}
 
+	// Se eliminan con unas pocas sentencias las entradas y la sesión; los avisos se envían tras confirmar
 	@Transactional
 	public void deleteSesion(int id) {
 		Persona userLogin = JWTUtils.userLogin();
@@ -248,47 +309,29 @@ public class SesionService {
 
 		Sesion sesion = sesionRepository.findById(id)
 				.orElseThrow(() -> new EntityNotFoundException("Sesión no encontrada."));
+		Integer idSala = sesionRepository.findIdSalaById(id);
 
-		Set<Usuario> usuarios = getUsuariosConEntrada(sesion);
-		for (Usuario usuario : usuarios) {
-			correoService.enviarAvisoCancelacion(usuario.getEmail(), sesion);
-		}
+		List<String> destinatarios = usuarioService.getEmailsConEntradaEnSesion(id);
 
-		Optional<Pelicula> peliculaO = peliculaService.findBySesion(sesion);
-		if (peliculaO.isPresent()) {
-			Pelicula pelicula = peliculaO.get();
-			pelicula.getSesiones().remove(sesion);
-			peliculaService.savePelicula(pelicula);
-		}
+		sesionRepository.eliminarEntradasDeSesion(id);
 
-		Optional<Sala> salaO = salaService.findBySesion(sesion);
-		if (salaO.isPresent()) {
-			Sala sala = salaO.get();
-			sala.getSesiones().remove(sesion);
-			salaService.saveSala(sala);
+		// Si se ha comprado o cancelado una entrada mientras tanto, la versión ya no coincide y se deshace todo
+		if (sesionRepository.eliminarSesion(id, sesion.getVersion()) == 0) {
+			throw new IllegalStateException("La sesión ha cambiado mientras se eliminaba. Inténtalo de nuevo.");
 		}
 
-		eliminarEntradasDeUsuariosEnSesion(sesion);
-
-		sesionRepository.delete(sesion);
-	}
-
-	public void eliminarEntradasDeUsuariosEnSesion(Sesion sesion) {
-		Set<Usuario> usuarios = getUsuariosConEntrada(sesion);
-
-		for (Usuario usuario : usuarios) {
-			Set<Entrada> entradasAEliminar = new HashSet<>();
-
-			for (Entrada entrada : usuario.getEntradas()) {
-				Optional<Sesion> sesionDeEntrada = findByEntrada(entrada);
-
-				if (sesionDeEntrada.isPresent() && sesionDeEntrada.get().getId() == sesion.getId()) {
-					entradasAEliminar.add(entrada);
-				}
-			}
-
-			usuario.getEntradas().removeAll(entradasAEliminar);
-			usuarioService.saveUsuario(usuario);
+		if (idSala != null) {
+			horarioSalaService.invalidar(idSala);
+		}
+		programacionService.invalidar(sesion.getFecha());
+		carteleraService.invalidar();
+		ocupacionService.invalidar(id);
+		retencionService.eliminarRetencionesDeSesion(id);
+		eventosAsientosService.cerrarSesion(id);
+		colaEsperaService.eliminarSesion(id);
+
+		if (!destinatarios.isEmpty()) {
+			TransaccionUtils.despuesDeConfirmar(() -> correoService.enviarAvisosCancelacion(destinatarios, sesion));
 		}
 	}
 }
@@ -0,0 +1,146 @@
+package FrenzyFilms.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FrenzyFilms.entity.CambioCatalogo;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.repository.CambioCatalogoRepository;
+import FrenzyFilms.repository.PeliculaRepository;
+
+/**
+ * Mantiene al día los índices del catálogo de cada instancia.
+ *
+ * Cada cambio de título, géneros o estado de una película, o su borrado,
+ * guarda en su misma transacción una fila en cambio_catalogo con el id de la
+ * película y la instancia que lo hizo. Cada instancia consulta periódicamente
+ * las filas de las demás y vuelve a indexar solo esas películas, sin recorrer
+ * el catálogo. Los cambios de sesiones no pasan por aquí: la cartelera de cada
+ * instancia caduca por sí sola (ver CarteleraService).
+ *
+ * La consulta repasa también un margen anterior a la última, para recoger
+ * cambios de transacciones que aún no estaban confirmadas; los cambios ya
+ * aplicados se recuerdan durante ese margen para no repetirlos.
+ */
+@Service
+public class SincronizacionCatalogoService {
+
+	@Autowired
+	private CambioCatalogoRepository cambioCatalogoRepository;
+
+	@Autowired
+	private PeliculaRepository peliculaRepository;
+
+	@Autowired
+	private BusquedaPeliculasService busquedaPeliculasService;
+
+	@Autowired
+	private GeneroService generoService;
+
+	@Autowired
+	private CarteleraService carteleraService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${frenzyfilms.catalogo.margen-sincronizacion-segundos:120}")
+	private long margenSegundos;
+
+	@Value("${frenzyfilms.catalogo.horas-retencion-cambios:24}")
+	private long horasRetencion;
+
+	private final String instancia = UUID.randomUUID().toString();
+
+	private LocalDateTime ultimaConsulta;
+
+	// id del cambio -> fecha, de los cambios ya aplicados que siguen dentro del margen
+	private final Map<Long, LocalDateTime> aplicados = new HashMap<>();
+
+	// Los cambios confirmados mientras se construyen los índices se vuelven a aplicar en la primera consulta
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void construirIndices() {
+		ultimaConsulta = LocalDateTime.now();
+		busquedaPeliculasService.construirIndice();
+		generoService.construirIndice();
+	}
+
+	// Se guarda en la transacción del cambio: las demás instancias solo lo ven si se confirma
+	public void publicar(int idPelicula) {
+		publicar(List.of(idPelicula));
+	}
+
+	public void publicar(Collection<Integer> idsPelicula) {
+		LocalDateTime ahora = LocalDateTime.now();
+		List<CambioCatalogo> cambios = new ArrayList<>();
+		for (Integer idPelicula : idsPelicula) {
+			CambioCatalogo cambio = new CambioCatalogo();
+			cambio.setIdPelicula(idPelicula);
+			cambio.setOrigen(instancia);
+			cambio.setFecha(ahora);
+			cambios.add(cambio);
+		}
+		cambioCatalogoRepository.saveAll(cambios);
+	}
+
+	@Scheduled(fixedDelayString = "${frenzyfilms.catalogo.intervalo-sincronizacion-ms:30000}",
+			initialDelayString = "${frenzyfilms.catalogo.intervalo-sincronizacion-ms:30000}")
+	public synchronized void sincronizar() {
+		if (ultimaConsulta == null) {
+			return;
+		}
+
+		LocalDateTime ahora = LocalDateTime.now();
+		LocalDateTime desde = ultimaConsulta.minusSeconds(margenSegundos);
+		aplicados.values().removeIf(fecha -> !fecha.isAfter(desde));
+
+		Set<Integer> idsPelicula = new LinkedHashSet<>();
+		for (CambioCatalogo cambio : cambioCatalogoRepository.findDeOtrasInstanciasDesde(desde, instancia)) {
+			if (aplicados.putIfAbsent(cambio.getId(), cambio.getFecha()) == null) {
+				idsPelicula.add(cambio.getIdPelicula());
+			}
+		}
+		ultimaConsulta = ahora;
+
+		if (!idsPelicula.isEmpty()) {
+			transactionTemplate.executeWithoutResult(estado -> aplicar(idsPelicula));
+		}
+	}
+
+	@Scheduled(cron = "${frenzyfilms.catalogo.cron-limpieza:0 20 * * * *}")
+	public void limpiar() {
+		transactionTemplate.executeWithoutResult(estado -> cambioCatalogoRepository
+				.deleteAnterioresA(LocalDateTime.now().minusHours(horasRetencion)));
+	}
+
+	// Se lee el estado actual de cada película, así da igual cuántas veces cambiara en otra instancia
+	private void aplicar(Set<Integer> idsPelicula) {
+		Set<Integer> eliminadas = new LinkedHashSet<>(idsPelicula);
+		for (Pelicula pelicula : peliculaRepository.findAllById(idsPelicula)) {
+			eliminadas.remove(pelicula.getId());
+			busquedaPeliculasService.indexar(pelicula);
+			generoService.actualizarPelicula(pelicula);
+		}
+
+		for (Integer idPelicula : eliminadas) {
+			busquedaPeliculasService.eliminar(idPelicula);
+			generoService.eliminarPelicula(idPelicula);
+		}
+
+		carteleraService.invalidar();
+	}
+}
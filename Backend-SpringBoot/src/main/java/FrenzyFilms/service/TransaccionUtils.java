@@ -0,0 +1,25 @@
+package FrenzyFilms.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransaccionUtils {
+
+	private TransaccionUtils() {
+	}
+
+	// Ejecuta la acción cuando se confirme la transacción actual (o en el acto si no hay ninguna)
+	public static void despuesDeConfirmar(Runnable accion) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			accion.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				accion.run();
+			}
+		});
+	}
+}
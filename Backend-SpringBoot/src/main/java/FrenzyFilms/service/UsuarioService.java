@@ -95,6 +95,10 @@ public class UsuarioService {
 		return usuarioRepository.findByEntradasContaining(entrada);
 	}
 
+	public List<String> getEmailsConEntradaEnSesion(int idSesion) {
+		return usuarioRepository.findEmailsConEntradaEnSesion(idSesion);
+	}
+
 	@Transactional
 	public void deleteUsuario() {
 		Usuario usuario = JWTUtils.userLogin();
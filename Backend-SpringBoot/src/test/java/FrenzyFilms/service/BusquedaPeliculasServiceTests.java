@@ -0,0 +1,118 @@
+package FrenzyFilms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import FrenzyFilms.dto.PeliculaResumenDTO;
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Pelicula;
+
+class BusquedaPeliculasServiceTests {
+
+	private final BusquedaPeliculasService busqueda = new BusquedaPeliculasService();
+
+	// Sin transacción activa, indexar y eliminar se aplican en el acto
+	@BeforeEach
+	void indexarCatalogo() {
+		ReflectionTestUtils.setField(busqueda, "objectMapper", new ObjectMapper());
+
+		busqueda.indexar(pelicula(1, "El Señor de los Anillos", "Peter Jackson", "Aventura, Fantasía",
+				"[{\"nombre\": \"Elijah Wood\", \"personaje\": \"Frodo\"}]", Estado.DISPONIBLE));
+		busqueda.indexar(pelicula(2, "Jackson Heights", "Otra Directora", "Drama", null, Estado.ESTRENO));
+		busqueda.indexar(pelicula(3, "Anillos perdidos", "Nadie", "Drama", null, Estado.DESCATALOGADA));
+	}
+
+	@Test
+	void tokenizarNormalizaMayusculasYTildes() {
+		assertEquals(List.of("el", "senor", "de", "los", "anillos"),
+				BusquedaPeliculasService.tokenizar("¡El SEÑOR de los Anillos!"));
+		assertEquals(List.of("accion", "ciencia", "ficcion"), BusquedaPeliculasService.tokenizar("Acción, Ciencia ficción"));
+	}
+
+	@Test
+	void tokenizarSeparaPorCualquierSignoYConservaLosNumeros() {
+		assertEquals(List.of("spider", "man", "2"), BusquedaPeliculasService.tokenizar("Spider-Man 2"));
+		assertTrue(BusquedaPeliculasService.tokenizar("  ,;  ").isEmpty());
+		assertTrue(BusquedaPeliculasService.tokenizar(null).isEmpty());
+	}
+
+	@Test
+	void buscaSinDistinguirTildesNiMayusculas() {
+		assertEquals(List.of(1), ids(busqueda.buscar("SENOR anillos", 10)));
+		assertEquals(List.of(1), ids(busqueda.buscar("fantasia", 10)));
+	}
+
+	@Test
+	void admitePalabrasIncompletas() {
+		assertEquals(List.of(1), ids(busqueda.buscar("señ ani", 10)));
+	}
+
+	@Test
+	void todasLasPalabrasDebenAparecer() {
+		assertTrue(busqueda.buscar("anillos drama", 10).isEmpty());
+		assertTrue(busqueda.buscar("   ", 10).isEmpty());
+	}
+
+	@Test
+	void buscaEnElReparto() {
+		assertEquals(List.of(1), ids(busqueda.buscar("elijah", 10)));
+	}
+
+	@Test
+	void noDevuelveDescatalogadas() {
+		assertEquals(List.of(1), ids(busqueda.buscar("anillos", 10)));
+	}
+
+	@Test
+	void elTituloPuntuaMasQueElDirector() {
+		assertEquals(List.of(2, 1), ids(busqueda.buscar("jackson", 10)));
+		assertEquals(List.of(2), ids(busqueda.buscar("jackson", 1)));
+	}
+
+	@Test
+	void reindexarRetiraLosTerminosAnteriores() {
+		busqueda.indexar(pelicula(2, "Manhattan", "Otra Directora", "Drama", null, Estado.ESTRENO));
+
+		assertEquals(List.of(1), ids(busqueda.buscar("jackson", 10)));
+		assertEquals(List.of(2), ids(busqueda.buscar("manhattan", 10)));
+	}
+
+	@Test
+	void eliminarRetiraLaPelicula() {
+		busqueda.eliminar(1);
+
+		assertEquals(List.of(2), ids(busqueda.buscar("jackson", 10)));
+		assertTrue(busqueda.buscar("elijah", 10).isEmpty());
+	}
+
+	@Test
+	void rechazaLimitesFueraDeRango() {
+		assertThrows(IllegalArgumentException.class, () -> busqueda.buscar("anillos", 0));
+		assertThrows(IllegalArgumentException.class, () -> busqueda.buscar("anillos", 51));
+	}
+
+	private static Pelicula pelicula(int id, String titulo, String director, String genero, String actores,
+			Estado estado) {
+		Pelicula pelicula = new Pelicula();
+		pelicula.setId(id);
+		pelicula.setTitulo(titulo);
+		pelicula.setDirector(director);
+		pelicula.setGenero(genero);
+		pelicula.setActores(actores);
+		pelicula.setEstado(estado);
+		return pelicula;
+	}
+
+	private static List<Integer> ids(List<PeliculaResumenDTO> resultados) {
+		return resultados.stream().map(PeliculaResumenDTO::getIdPelicula).toList();
+	}
+}
@@ -0,0 +1,249 @@
+package FrenzyFilms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FrenzyFilms.entity.Entrada;
+import FrenzyFilms.entity.Estado;
+import FrenzyFilms.entity.Formato;
+import FrenzyFilms.entity.Pelicula;
+import FrenzyFilms.entity.Roles;
+import FrenzyFilms.entity.Sala;
+import FrenzyFilms.entity.Sesion;
+import FrenzyFilms.entity.Usuario;
+import FrenzyFilms.repository.PeliculaRepository;
+import FrenzyFilms.repository.SalaRepository;
+import FrenzyFilms.repository.SesionRepository;
+import FrenzyFilms.repository.UsuarioRepository;
+
+/**
+ * Prueba de carga de la compra de entradas: muchos usuarios compran a la vez
+ * asientos aleatorios de una misma sesión, con más demanda que asientos.
+ *
+ * Se ejecuta con "mvn test -Pcarga". El tamaño de la prueba se ajusta con las
+ * propiedades carga.usuarios, carga.peticiones y carga.hilos.
+ */
+@SpringBootTest
+@Tag("carga")
+class CompraEntradasCargaTests {
+
+	private static final int NUM_FILAS = 20;
+	private static final int NUM_COLUMNAS = 25;
+	private static final int MAX_ENTRADAS_POR_USUARIO = 10;
+
+	private final int numUsuarios = Integer.getInteger("carga.usuarios", 60);
+	private final int numPeticiones = Integer.getInteger("carga.peticiones", 4000);
+	private final int numHilos = Integer.getInteger("carga.hilos", 32);
+
+	@Autowired
+	private EntradaService entradaService;
+
+	@Autowired
+	private SalaRepository salaRepository;
+
+	@Autowired
+	private PeliculaRepository peliculaRepository;
+
+	@Autowired
+	private SesionRepository sesionRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void compraConcurrenteSinSobreventa() throws InterruptedException {
+		int idSesion = crearSesion();
+		List<String> usernames = crearUsuarios();
+
+		long[] latencias = new long[numPeticiones];
+		AtomicInteger exitos = new AtomicInteger();
+		Map<String, AtomicInteger> rechazos = new ConcurrentHashMap<>();
+
+		ExecutorService executor = Executors.newFixedThreadPool(numHilos);
+		CountDownLatch salida = new CountDownLatch(1);
+		CountDownLatch fin = new CountDownLatch(numPeticiones);
+
+		for (int i = 0; i < numPeticiones; i++) {
+			int peticion = i;
+			executor.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				String username = usernames.get(random.nextInt(usernames.size()));
+
+				Entrada entrada = new Entrada();
+				entrada.setNumFila(random.nextInt(NUM_FILAS) + 1);
+				entrada.setNumAsiento(random.nextInt(NUM_COLUMNAS) + 1);
+
+				// JWTUtils.userLogin() obtiene el usuario a partir del contexto de seguridad del hilo
+				SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+						username, null, List.of(new SimpleGrantedAuthority(Roles.USER.name()))));
+				try {
+					salida.await();
+					long inicio = System.nanoTime();
+					try {
+						entradaService.createEntrada(entrada, idSesion);
+						exitos.incrementAndGet();
+					} catch (RuntimeException ex) {
+						rechazos.computeIfAbsent(ex.getClass().getSimpleName(), k -> new AtomicInteger())
+								.incrementAndGet();
+					}
+					latencias[peticion] = System.nanoTime() - inicio;
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				} finally {
+					SecurityContextHolder.clearContext();
+					fin.countDown();
+				}
+			});
+		}
+
+		long inicio = System.nanoTime();
+		salida.countDown();
+		assertTrue(fin.await(10, TimeUnit.MINUTES), "La prueba de carga no ha terminado a tiempo");
+		long duracion = System.nanoTime() - inicio;
+		executor.shutdown();
+
+		informar(latencias, duracion, exitos.get(), rechazos);
+
+		List<Map<String, Object>> vendidas = jdbcTemplate.queryForList(
+				"SELECT num_fila, num_asiento, usuario_id FROM entrada WHERE sesion_id = ?", idSesion);
+
+		// Sin sobreventa y cada compra aceptada tiene su entrada
+		assertTrue(vendidas.size() <= NUM_FILAS * NUM_COLUMNAS, "Se han vendido más entradas que asientos");
+		assertEquals(exitos.get(), vendidas.size(), "Compras aceptadas y entradas guardadas no coinciden");
+
+		// Ningún asiento vendido dos veces
+		Set<String> asientos = new HashSet<>();
+		for (Map<String, Object> fila : vendidas) {
+			assertTrue(asientos.add(fila.get("num_fila") + "-" + fila.get("num_asiento")),
+					"Asiento vendido dos veces: " + fila.get("num_fila") + "-" + fila.get("num_asiento"));
+		}
+
+		// Límite de entradas por usuario
+		Map<Object, Integer> porUsuario = new HashMap<>();
+		for (Map<String, Object> fila : vendidas) {
+			porUsuario.merge(fila.get("usuario_id"), 1, Integer::sum);
+		}
+		porUsuario.forEach((idUsuario, total) -> assertTrue(total <= MAX_ENTRADAS_POR_USUARIO,
+				"El usuario " + idUsuario + " tiene " + total + " entradas"));
+
+		// El contador desnormalizado cuadra con las entradas vendidas
+		Integer disponibles = jdbcTemplate.queryForObject(
+				"SELECT asientos_disponibles FROM sesion WHERE id = ?", Integer.class, idSesion);
+		assertEquals(NUM_FILAS * NUM_COLUMNAS - vendidas.size(), disponibles);
+	}
+
+	private int crearSesion() {
+		return transactionTemplate.execute(status -> {
+			int sufijo = ThreadLocalRandom.current().nextInt(1, 1_000_000);
+
+			Sala sala = new Sala();
+			sala.setNumSala(sufijo);
+			sala.setNumFilas(NUM_FILAS);
+			sala.setNumColumnas(NUM_COLUMNAS);
+			sala.setSesiones(new HashSet<>());
+
+			Pelicula pelicula = new Pelicula();
+			pelicula.setTitulo("Prueba de carga");
+			pelicula.setClasificacionEdad("TP");
+			pelicula.setFechaEstreno(LocalDate.now());
+			pelicula.setDuracion(120);
+			pelicula.setGenero("Acción");
+			pelicula.setDirector("Director");
+			pelicula.setActores("[]");
+			pelicula.setSinopsis("Sinopsis");
+			pelicula.setCartel("https://image.tmdb.org/t/p/w500/cartel.jpg");
+			pelicula.setBanner("https://image.tmdb.org/t/p/original/banner.jpg");
+			pelicula.setTmdbId(sufijo);
+			pelicula.setCalificacionTmdb(7.5);
+			pelicula.setEstado(Estado.ESTRENO);
+			pelicula.setSesiones(new HashSet<>());
+
+			Sesion sesion = new Sesion();
+			sesion.setFecha(LocalDate.now().plusDays(1));
+			sesion.setHoraInicio(LocalTime.of(20, 0));
+			sesion.setPrecioEntrada(8.5);
+			sesion.setFormato(Formato.DIGITAL);
+			sesion.setAsientosDisponibles(NUM_FILAS * NUM_COLUMNAS);
+			sesion.setEntradas(new HashSet<>());
+			sesion = sesionRepository.save(sesion);
+
+			sala.getSesiones().add(sesion);
+			salaRepository.save(sala);
+			pelicula.getSesiones().add(sesion);
+			peliculaRepository.save(pelicula);
+
+			return sesion.getId();
+		});
+	}
+
+	private List<String> crearUsuarios() {
+		String prefijo = "carga" + ThreadLocalRandom.current().nextInt(1, 1_000_000) + "_";
+		List<Usuario> usuarios = new ArrayList<>();
+
+		for (int i = 0; i < numUsuarios; i++) {
+			Usuario usuario = new Usuario();
+			usuario.setNombre("Usuario " + i);
+			usuario.setUsername(prefijo + i);
+			usuario.setEmail(prefijo + i + "@test.com");
+			usuario.setTelefono("600000000");
+			usuario.setPassword("password");
+			usuario.setRol(Roles.USER);
+			usuario.setEntradas(new HashSet<>());
+			usuarios.add(usuario);
+		}
+
+		usuarioRepository.saveAll(usuarios);
+		return usuarios.stream().map(Usuario::getUsername).toList();
+	}
+
+	private void informar(long[] latencias, long duracion, int exitos, Map<String, AtomicInteger> rechazos) {
+		long[] ordenadas = latencias.clone();
+		Arrays.sort(ordenadas);
+		double segundos = duracion / 1e9;
+
+		System.out.printf("%n=== Prueba de carga: compra de entradas ===%n");
+		System.out.printf("Peticiones: %d (%d usuarios, %d hilos)%n", numPeticiones, numUsuarios, numHilos);
+		System.out.printf("Duración: %.2f s - Rendimiento: %.1f peticiones/s%n", segundos, numPeticiones / segundos);
+		System.out.printf("Latencia p50: %.2f ms - p99: %.2f ms - máx: %.2f ms%n", percentil(ordenadas, 50) / 1e6,
+				percentil(ordenadas, 99) / 1e6, ordenadas[ordenadas.length - 1] / 1e6);
+		System.out.printf("Compras aceptadas: %d - Rechazos: %s%n%n", exitos, rechazos);
+	}
+
+	private static long percentil(long[] ordenadas, int percentil) {
+		int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+		return ordenadas[Math.max(indice, 0)];
+	}
+}
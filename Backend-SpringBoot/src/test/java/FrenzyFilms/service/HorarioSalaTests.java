@@ -0,0 +1,84 @@
+package FrenzyFilms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HorarioSalaTests {
+
+	private static final LocalDate DIA = LocalDate.of(2025, 3, 14);
+
+	private final HorarioSala horario = new HorarioSala();
+
+	@Test
+	void salaVaciaNoTieneSolapamientos() {
+		assertEquals(0, horario.buscarSolapamiento(hora(18, 0), hora(20, 0), 0));
+	}
+
+	@Test
+	void detectaSolapamientosParciales() {
+		horario.añadir(1, hora(18, 0), hora(20, 0));
+
+		assertEquals(1, horario.buscarSolapamiento(hora(19, 0), hora(21, 0), 0));
+		assertEquals(1, horario.buscarSolapamiento(hora(17, 0), hora(18, 30), 0));
+	}
+
+	@Test
+	void detectaIntervalosContenidosYQueContienen() {
+		horario.añadir(1, hora(18, 0), hora(20, 0));
+
+		assertEquals(1, horario.buscarSolapamiento(hora(18, 30), hora(19, 0), 0));
+		assertEquals(1, horario.buscarSolapamiento(hora(17, 0), hora(21, 0), 0));
+	}
+
+	@Test
+	void intervalosContiguosNoSeSolapan() {
+		horario.añadir(1, hora(18, 0), hora(20, 0));
+
+		assertEquals(0, horario.buscarSolapamiento(hora(20, 0), hora(22, 0), 0));
+		assertEquals(0, horario.buscarSolapamiento(hora(16, 0), hora(18, 0), 0));
+	}
+
+	@Test
+	void ignoraLaSesionExcluida() {
+		horario.añadir(1, hora(18, 0), hora(20, 0));
+		horario.añadir(2, hora(20, 30), hora(22, 0));
+
+		// Mover la sesión 1 media hora más tarde no choca consigo misma
+		assertEquals(0, horario.buscarSolapamiento(hora(18, 30), hora(20, 30), 1));
+		assertEquals(2, horario.buscarSolapamiento(hora(19, 0), hora(21, 0), 1));
+	}
+
+	@Test
+	void encuentraUnaSesionLargaQueEmpiezaAntesQueOtrasCortas() {
+		horario.añadir(1, hora(10, 0), hora(14, 0));
+		horario.añadir(2, hora(12, 0), hora(12, 30));
+		horario.añadir(3, hora(13, 0), hora(13, 30));
+
+		assertEquals(1, horario.buscarSolapamiento(hora(13, 45), hora(15, 0), 0));
+		assertEquals(0, horario.buscarSolapamiento(hora(14, 0), hora(15, 0), 0));
+	}
+
+	@Test
+	void getOcupadosDevuelveLosIntervalosDelRangoOrdenados() {
+		horario.añadir(3, hora(21, 0), hora(23, 0));
+		horario.añadir(1, hora(10, 0), hora(14, 0));
+		horario.añadir(2, hora(16, 0), hora(18, 0));
+
+		List<LocalDateTime[]> ocupados = horario.getOcupados(hora(13, 0), hora(21, 0));
+
+		assertEquals(2, ocupados.size());
+		assertEquals(hora(10, 0), ocupados.get(0)[0]);
+		assertEquals(hora(14, 0), ocupados.get(0)[1]);
+		assertEquals(hora(16, 0), ocupados.get(1)[0]);
+	}
+
+	private static LocalDateTime hora(int hora, int minuto) {
+		return LocalDateTime.of(DIA, LocalTime.of(hora, minuto));
+	}
+}
@@ -0,0 +1,65 @@
+package FrenzyFilms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MochilaNoAcotadaTests {
+
+	@Test
+	void sinCapacidadNoSeEligeNada() {
+		assertTrue(MochilaNoAcotada.resolver(0, new int[] { 3 }, new long[] { 10 }).isEmpty());
+	}
+
+	@Test
+	void elementoQueNoCabeNoSeElige() {
+		int[] pesos = { 23 };
+		long[] valores = { 100 };
+
+		assertTrue(MochilaNoAcotada.resolver(22, pesos, valores).isEmpty());
+		assertEquals(List.of(0), MochilaNoAcotada.resolver(23, pesos, valores));
+	}
+
+	@Test
+	void unElementoSePuedeRepetir() {
+		assertEquals(List.of(0, 0), MochilaNoAcotada.resolver(50, new int[] { 23 }, new long[] { 100 }));
+	}
+
+	@Test
+	void maximizaElValorTotalAunqueHayaUnElementoMasValioso() {
+		// Uno de peso 25 vale 110; dos de peso 15 suman 120 en 30
+		int[] pesos = { 25, 15 };
+		long[] valores = { 110, 60 };
+
+		assertEquals(List.of(1, 1), MochilaNoAcotada.resolver(30, pesos, valores));
+	}
+
+	@Test
+	void combinaElementosDistintos() {
+		int[] pesos = { 7, 5 };
+		long[] valores = { 70, 50 };
+
+		List<Integer> elegidos = MochilaNoAcotada.resolver(12, pesos, valores);
+
+		assertEquals(2, elegidos.size());
+		assertTrue(elegidos.containsAll(List.of(0, 1)));
+	}
+
+	@Test
+	void losElegidosCabenYNingunoSobraSinValor() {
+		int[] pesos = { 21, 28, 18 };
+		long[] valores = { 95, 128, 72 };
+
+		for (int capacidad = 1; capacidad <= 120; capacidad++) {
+			int ocupado = 0;
+			for (int i : MochilaNoAcotada.resolver(capacidad, pesos, valores)) {
+				ocupado += pesos[i];
+			}
+			assertTrue(ocupado <= capacidad);
+			assertTrue(capacidad - ocupado < 18);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package FrenzyFilms.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class OcupacionSesionTests {
+
+	@Test
+	void indiceRecorreLosAsientosFilaAFila() {
+		OcupacionSesion ocupacion = new OcupacionSesion(3, 4);
+
+		assertEquals(0, ocupacion.indice(1, 1));
+		assertEquals(3, ocupacion.indice(1, 4));
+		assertEquals(4, ocupacion.indice(2, 1));
+		assertEquals(11, ocupacion.indice(3, 4));
+	}
+
+	@Test
+	void soloExistenLosAsientosDentroDeLaSala() {
+		OcupacionSesion ocupacion = new OcupacionSesion(3, 4);
+
+		assertTrue(ocupacion.existe(3, 4));
+		assertFalse(ocupacion.existe(0, 1));
+		assertFalse(ocupacion.existe(1, 0));
+		assertFalse(ocupacion.existe(4, 1));
+		assertFalse(ocupacion.existe(1, 5));
+		assertFalse(ocupacion.ocupar(4, 1));
+		assertFalse(ocupacion.estaOcupado(1, 5));
+	}
+
+	@Test
+	void ocuparYLiberarActualizanLosContadores() {
+		OcupacionSesion ocupacion = new OcupacionSesion(3, 4);
+
+		assertTrue(ocupacion.ocupar(2, 3));
+		assertFalse(ocupacion.ocupar(2, 3));
+		assertTrue(ocupacion.estaOcupado(2, 3));
+		assertFalse(ocupacion.estaOcupado(3, 2));
+		assertEquals(1, ocupacion.getNumOcupados());
+		assertEquals(11, ocupacion.getNumLibres());
+
+		assertTrue(ocupacion.liberar(2, 3));
+		assertFalse(ocupacion.liberar(2, 3));
+		assertFalse(ocupacion.estaOcupado(2, 3));
+		assertEquals(0, ocupacion.getNumOcupados());
+		assertEquals(12, ocupacion.getNumLibres());
+	}
+
+	@Test
+	void asientosEnDistintasPalabrasNoSeMezclan() {
+		// 100 asientos: el índice 63 es el último bit de la primera palabra y el 64 el primero de la segunda
+		OcupacionSesion ocupacion = new OcupacionSesion(10, 10);
+
+		assertTrue(ocupacion.ocupar(7, 4));
+		assertTrue(ocupacion.estaOcupado(63));
+		assertFalse(ocupacion.estaOcupado(64));
+
+		assertTrue(ocupacion.ocupar(7, 5));
+		assertTrue(ocupacion.liberar(7, 4));
+		assertFalse(ocupacion.estaOcupado(63));
+		assertTrue(ocupacion.estaOcupado(64));
+		assertEquals(1, ocupacion.getNumOcupados());
+	}
+
+	@Test
+	void mapaCodificadoTieneUnBitPorAsiento() {
+		OcupacionSesion ocupacion = new OcupacionSesion(3, 4);
+		ocupacion.ocupar(1, 1);
+		ocupacion.ocupar(2, 1);
+		ocupacion.ocupar(3, 4);
+
+		// Índices 0 y 4 en el primer byte, índice 11 en el bit 3 del segundo
+		byte[] mapa = Base64.getDecoder().decode(ocupacion.getMapaCodificado());
+		assertArrayEquals(new byte[] { 0x11, 0x08 }, mapa);
+	}
+
+	@Test
+	void mapaCodificadoCambiaTrasCadaCambio() {
+		OcupacionSesion ocupacion = new OcupacionSesion(10, 10);
+		String vacio = ocupacion.getMapaCodificado();
+		assertEquals(13, Base64.getDecoder().decode(vacio).length);
+
+		ocupacion.ocupar(7, 5);
+		byte[] mapa = Base64.getDecoder().decode(ocupacion.getMapaCodificado());
+		assertEquals(0x01, mapa[8]);
+
+		ocupacion.liberar(7, 5);
+		assertEquals(vacio, ocupacion.getMapaCodificado());
+	}
+}
@@ -0,0 +1,77 @@
+package FrenzyFilms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RuedaTemporalTests {
+
+	// Ticks de 100 ms y 8 ranuras: la rueda da una vuelta cada 800 ms
+	private final RuedaTemporal<String> rueda = new RuedaTemporal<>(100, 8, 0);
+	private final List<String> vencidos = new ArrayList<>();
+
+	@Test
+	void elementoVenceAlLlegarSuTick() {
+		rueda.programar("a", 250);
+
+		rueda.avanzar(299, vencidos::add);
+		assertTrue(vencidos.isEmpty());
+
+		rueda.avanzar(300, vencidos::add);
+		assertEquals(List.of("a"), vencidos);
+	}
+
+	@Test
+	void cadaElementoVenceUnaSolaVez() {
+		rueda.programar("a", 100);
+		rueda.programar("b", 100);
+
+		rueda.avanzar(100, vencidos::add);
+		rueda.avanzar(200, vencidos::add);
+
+		assertEquals(2, vencidos.size());
+		assertTrue(vencidos.containsAll(List.of("a", "b")));
+	}
+
+	@Test
+	void elementoYaVencidoSeProgramaEnElTickPendiente() {
+		rueda.avanzar(500, vencidos::add);
+
+		// Ya pasó su tick: no puede quedarse en una ranura ya procesada hasta la vuelta siguiente
+		rueda.programar("tarde", 150);
+
+		rueda.avanzar(599, vencidos::add);
+		assertTrue(vencidos.isEmpty());
+
+		rueda.avanzar(600, vencidos::add);
+		assertEquals(List.of("tarde"), vencidos);
+	}
+
+	@Test
+	void elementoDeOtraVueltaSobreviveAlPasarPorSuRanura() {
+		// Tick 10, en la misma ranura que el tick 2
+		rueda.programar("lejano", 1000);
+
+		rueda.avanzar(250, vencidos::add);
+		rueda.avanzar(999, vencidos::add);
+		assertTrue(vencidos.isEmpty());
+
+		rueda.avanzar(1000, vencidos::add);
+		assertEquals(List.of("lejano"), vencidos);
+	}
+
+	@Test
+	void avanzarProcesaTodosLosTicksAtrasados() {
+		rueda.programar("a", 100);
+		rueda.programar("b", 400);
+		rueda.programar("c", 2000);
+
+		rueda.avanzar(1500, vencidos::add);
+
+		assertEquals(List.of("a", "b"), vencidos);
+	}
+}